@@ -0,0 +1,87 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import shared.BankAccount;
+import shared.DataStructure;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * {@code add}, {@code contains} and {@code forEach} of the data structures
+ * </h2>
+ *
+ * <ul>
+ *     <li>{@code add}: loads all the accounts of the dataset into an empty structure</li>
+ *     <li>{@code contains}: looks up one account of the loaded structure, in a random order</li>
+ *     <li>{@code forEach}: iterates over all the accounts of the loaded structure</li>
+ * </ul>
+ *
+ * <p>
+ * The structures and the datasets are the parameters of the subclasses: {@link DataStructureBenchmark} runs every
+ * structure on the account files of the project, and {@link LargeDataStructureBenchmark} runs the structures that
+ * scale on a generated dataset of 1 million accounts.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractDataStructureBenchmark {
+    private List<BankAccount> accounts;
+    private DataStructure<BankAccount> loaded;
+    private BankAccount[] probes;
+    private int nextProbe;
+
+    /**
+     * @return the value of the {@code structure} parameter
+     */
+    protected abstract Structure structure();
+
+    /**
+     * @return the value of the {@code dataset} parameter
+     */
+    protected abstract String dataset();
+
+    @Setup
+    public void setUp() {
+        this.accounts = Dataset.load(this.dataset());
+        this.loaded = this.structure().create();
+        this.accounts.forEach(this.loaded::add);
+        this.probes = Dataset.shuffled(this.accounts, 7);
+    }
+
+    @Benchmark
+    public DataStructure<BankAccount> add() {
+        var structure = this.structure().create();
+        for (var account : this.accounts) {
+            structure.add(account);
+        }
+        return structure;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        var probe = this.probes[this.nextProbe];
+        this.nextProbe = this.nextProbe + 1 == this.probes.length ? 0 : this.nextProbe + 1;
+        return this.loaded.contains(probe);
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        this.loaded.forEach(blackhole::consume);
+    }
+}
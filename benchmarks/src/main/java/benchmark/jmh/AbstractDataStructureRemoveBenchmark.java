@@ -0,0 +1,72 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import shared.DataStructure;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * {@code remove} of the data structures
+ * </h2>
+ *
+ * <p>
+ * Each invocation removes all the accounts of a full structure, in a random order, until it is empty. The structure is
+ * loaded again before every invocation, outside of the measured time. As the loading takes longer than the removes
+ * themselves, each iteration is a single invocation. The structures and the datasets are the parameters of the
+ * subclasses, {@link DataStructureRemoveBenchmark} and {@link LargeDataStructureRemoveBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public abstract class AbstractDataStructureRemoveBenchmark {
+    private List<BankAccount> accounts;
+    private BankAccount[] removes;
+    private DataStructure<BankAccount> loaded;
+
+    /**
+     * @return the value of the {@code structure} parameter
+     */
+    protected abstract Structure structure();
+
+    /**
+     * @return the value of the {@code dataset} parameter
+     */
+    protected abstract String dataset();
+
+    @Setup
+    public void setUp() {
+        this.accounts = Dataset.load(this.dataset());
+        this.removes = Dataset.shuffled(this.accounts, 11);
+    }
+
+    @Setup(Level.Invocation)
+    public void load() {
+        this.loaded = this.structure().create();
+        this.accounts.forEach(this.loaded::add);
+    }
+
+    @Benchmark
+    public int remove() {
+        for (var account : this.removes) {
+            this.loaded.remove(account);
+        }
+        return this.loaded.size();
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Every sort of {@link SortedLinkedList} on the account files
+ * </h2>
+ *
+ * <p>
+ * Same as {@link SortBenchmark}, with the accounts in the order of the {@code conta*.txt} files, which is the order the
+ * reports sort.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = SortBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = SortBenchmark.BATCH_SIZE)
+@Fork(1)
+public class AccountFileSortBenchmark {
+
+    @Param({"QUICK_SORT", "QUICK_SORT_ASYNC", "SHELL_SORT", "MERGE_SORT"})
+    public Sort sort;
+
+    @Param({"CONTA_500", "CONTA_1000", "CONTA_5000", "CONTA_10000", "CONTA_50000"})
+    public String file;
+
+    private List<BankAccount> accounts;
+    private SortBatch batch;
+
+    @Setup
+    public void setUp() {
+        this.accounts = Dataset.load(this.file);
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        this.batch = new SortBatch(this.accounts, SortBenchmark.BATCH_SIZE);
+    }
+
+    @Benchmark
+    public SortedLinkedList<BankAccount> sort() {
+        var list = this.batch.next();
+        this.sort.sort(list);
+        return list;
+    }
+}
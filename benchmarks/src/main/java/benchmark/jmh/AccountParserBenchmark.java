@@ -0,0 +1,123 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import shared.DataStructure;
+import shared.MappedAccountReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Parse time of the account files
+ * </h2>
+ *
+ * <ul>
+ *     <li>{@code bufferedReader}: the current path, {@code BufferedReader} and {@link BankAccount#fromLine(String)}</li>
+ *     <li>{@code mappedPrimitives}: {@link MappedAccountReader} with a sink of primitives</li>
+ *     <li>{@code mappedRecords}: {@link MappedAccountReader} building {@link BankAccount} records</li>
+ * </ul>
+ *
+ * <p>
+ * The file is the one of the dataset, see {@link Dataset#file(String)}. A bigger file is opt-in from the command line,
+ * like {@code -p dataset=GENERATED_10000000} for about 400 MB.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountParserBenchmark {
+
+    @Param({"CONTA_50000", "GENERATED_1000000"})
+    public String dataset;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.file = Dataset.file(this.dataset);
+    }
+
+    @Benchmark
+    public long bufferedReader() throws IOException {
+        long checksum = 0;
+        try (var reader = Files.newBufferedReader(this.file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                var account = BankAccount.fromLine(line);
+                checksum += account.account() + account.ownerCpf().hashCode();
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long mappedPrimitives() {
+        long[] checksum = {0};
+        MappedAccountReader.read(this.file, (agency, account, balanceCents, ownerCpf) -> checksum[0] += account + ownerCpf);
+        return checksum[0];
+    }
+
+    @Benchmark
+    public int mappedRecords() {
+        var counter = new CountingStructure();
+        MappedAccountReader.read(this.file, counter);
+        return counter.size();
+    }
+
+    private static class CountingStructure implements DataStructure<BankAccount> {
+        private int size;
+
+        @Override
+        public boolean add(BankAccount data) {
+            this.size++;
+            return true;
+        }
+
+        @Override
+        public boolean remove(BankAccount data) {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public boolean contains(BankAccount data) {
+            return false;
+        }
+
+        @Override
+        public void clear() {
+            this.size = 0;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        @Override
+        public void forEach(Consumer<BankAccount> consumer) {
+        }
+    }
+}
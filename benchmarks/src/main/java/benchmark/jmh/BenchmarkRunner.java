@@ -0,0 +1,59 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+
+/**
+ * <h2>
+ * Entry point of the benchmarks jar
+ * </h2>
+ *
+ * <p>
+ * Same as {@code org.openjdk.jmh.Main}, with the GC profiler always enabled, so every result comes with the allocation
+ * rate ({@code gc.alloc.rate.norm} is the number of bytes allocated by each operation). It accepts every JMH option:
+ * </p>
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml package
+ * java -jar benchmarks/target/benchmarks.jar DataStructureBenchmark.add -p structure=AVL_TREE,BPLUS_TREE
+ * </pre>
+ *
+ * <p>
+ * The account files are read from {@code src/shared/resources}, so the jar must run from the root of the repository.
+ * Unless {@code -p threads=} is given, the {@code threads} parameter of {@link ConcurrentLoadBenchmark} goes from 1 to
+ * all the available cores, doubling at each step.
+ * </p>
+ */
+public class BenchmarkRunner {
+    private static final String THREADS_PARAMETER = "threads";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var commandLine = new CommandLineOptions(args);
+        var options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) options.include(BenchmarkRunner.class.getPackageName() + ".");
+        if (!commandLine.getParameter(THREADS_PARAMETER).hasValue()) options.param(THREADS_PARAMETER, threadCounts());
+
+        new Runner(options.build()).run();
+    }
+
+    /**
+     * @return 1, 2, 4... up to the number of available cores, which is always the last one
+     */
+    private static String[] threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        var counts = new ArrayList<String>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(Integer.toString(threads));
+        }
+        counts.add(Integer.toString(cores));
+        return counts.toArray(String[]::new);
+    }
+}
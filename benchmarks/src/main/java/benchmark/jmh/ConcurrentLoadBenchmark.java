@@ -0,0 +1,109 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import shared.DataStructure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * <h2>
+ * Load and lookups of the concurrent structures from several threads
+ * </h2>
+ *
+ * <p>
+ * The accounts of the dataset are split in one slice per thread, and the threads of a pool of their own add their slices
+ * to an empty structure ({@code add}) or look them up in a loaded one ({@code contains}). The time of an invocation is
+ * the time of the slowest thread, so the scaling is read from the {@code threads} parameter. {@link BenchmarkRunner}
+ * sets it from 1 thread to all the available cores; the values below are the defaults of the other runners, and any
+ * count can be given with {@code -p threads=}, like {@code -p threads=16,32}. The single-threaded load of the other
+ * structures, like {@code AvlTree}, is {@link DataStructureBenchmark#add()}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentLoadBenchmark {
+
+    @Param({"CONCURRENT_LINKED_HASH_TABLE", "CONCURRENT_SKIP_LIST"})
+    public Structure structure;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"GENERATED_1000000"})
+    public String dataset;
+
+    private List<List<BankAccount>> slices;
+    private int size;
+    private DataStructure<BankAccount> loaded;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        var accounts = Dataset.load(this.dataset);
+        this.size = accounts.size();
+        this.slices = new ArrayList<>();
+        int chunk = (accounts.size() + this.threads - 1) / this.threads;
+        for (int from = 0; from < accounts.size(); from += chunk) {
+            this.slices.add(accounts.subList(from, Math.min(from + chunk, accounts.size())));
+        }
+
+        this.executor = Executors.newFixedThreadPool(this.threads);
+        this.loaded = this.structure.create();
+        this.run(this.loaded::add);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdown();
+    }
+
+    @Benchmark
+    public DataStructure<BankAccount> add() {
+        var structure = this.structure.create();
+        this.run(structure::add);
+        if (structure.size() != this.size) throw new IllegalStateException("Lost updates: " + structure.size());
+        return structure;
+    }
+
+    @Benchmark
+    public void contains() {
+        this.run(this.loaded::contains);
+    }
+
+    /**
+     * Apply the operation to every account, each slice in a thread, and wait for all of them.
+     */
+    private void run(Predicate<BankAccount> operation) {
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        for (var slice : this.slices) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (var account : slice) {
+                    if (!operation.test(account)) throw new IllegalStateException("Operation failed for " + account);
+                }
+            }, this.executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+}
@@ -0,0 +1,109 @@
+package benchmark.jmh;
+
+import avl_tree.AvlTree;
+import binary_tree.BinaryTree;
+import hash.LinkedHashTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import shared.Cpf;
+import shared.DataStructure;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Cost of comparing CPFs when loading the data structures
+ * </h2>
+ *
+ * <p>
+ * Loads the owner CPFs of the dataset into an empty structure, once with {@link Cpf}, which compares two longs, and
+ * once with {@link StringCpf}, which parses both strings on every comparison as {@code Cpf} used to do.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CpfComparisonBenchmark {
+
+    @Param({"AVL_TREE", "BINARY_TREE", "LINKED_HASH_TABLE"})
+    public CpfStructure structure;
+
+    @Param({"CONTA_50000"})
+    public String dataset;
+
+    private List<Cpf> cpfs;
+    private List<StringCpf> stringCpfs;
+
+    @Setup
+    public void setUp() {
+        this.cpfs = Dataset.load(this.dataset).stream().map(BankAccount::ownerCpf).toList();
+        this.stringCpfs = this.cpfs.stream().map(cpf -> new StringCpf(cpf.value())).toList();
+    }
+
+    @Benchmark
+    public DataStructure<Cpf> longCpf() {
+        DataStructure<Cpf> loaded = this.structure.create();
+        this.cpfs.forEach(loaded::add);
+        return loaded;
+    }
+
+    @Benchmark
+    public DataStructure<StringCpf> stringCpf() {
+        DataStructure<StringCpf> loaded = this.structure.create();
+        this.stringCpfs.forEach(loaded::add);
+        return loaded;
+    }
+
+    /**
+     * The structures compared, the values of the {@code structure} parameter.
+     */
+    public enum CpfStructure {
+        AVL_TREE {
+            @Override
+            <T extends Comparable<T>> DataStructure<T> create() {
+                return new AvlTree<>();
+            }
+        },
+        BINARY_TREE {
+            @Override
+            <T extends Comparable<T>> DataStructure<T> create() {
+                return new BinaryTree<>();
+            }
+        },
+        LINKED_HASH_TABLE {
+            @Override
+            <T extends Comparable<T>> DataStructure<T> create() {
+                return new LinkedHashTable<>();
+            }
+        };
+
+        abstract <T extends Comparable<T>> DataStructure<T> create();
+    }
+
+    /**
+     * The previous representation of the CPF: a string parsed on every comparison.
+     */
+    public record StringCpf(String value) implements Comparable<StringCpf> {
+
+        @Override
+        public int compareTo(StringCpf o) {
+            final Long cpfNumeric = Long.parseLong(value);
+            final Long oCpfNumeric = Long.parseLong(o.value);
+            return cpfNumeric.compareTo(oCpfNumeric);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * <h2>
+ * {@code add}, {@code contains} and {@code forEach} of every data structure on the account files
+ * </h2>
+ *
+ * <p>
+ * Runs for each {@link Structure} and each account file of the project. Some structures have a linear
+ * {@code contains}, so the generated datasets are in {@link LargeDataStructureBenchmark}, or opt-in from the command
+ * line for a given structure, like {@code -p structure=AVL_TREE -p dataset=GENERATED_1000000}.
+ * </p>
+ *
+ * <p>
+ * {@code remove} needs a full structure for every invocation, so it is in {@link DataStructureRemoveBenchmark}.
+ * </p>
+ */
+public class DataStructureBenchmark extends AbstractDataStructureBenchmark {
+
+    @Param({
+            "AVL_TREE", "PERSISTENT_AVL_TREE", "BINARY_TREE", "SCAPEGOAT_TREE", "BPLUS_TREE", "LINKED_HASH_TABLE",
+            "CONCURRENT_LINKED_HASH_TABLE", "LONG_HASH_TABLE", "SORTED_LINKED_LIST", "CONCURRENT_SKIP_LIST",
+            "COLUMNAR_ACCOUNT_STORE", "OWNER_INDEXED_AVL_TREE"
+    })
+    public Structure structure;
+
+    @Param({"CONTA_500", "CONTA_1000", "CONTA_5000", "CONTA_10000", "CONTA_50000"})
+    public String dataset;
+
+    @Override
+    protected Structure structure() {
+        return this.structure;
+    }
+
+    @Override
+    protected String dataset() {
+        return this.dataset;
+    }
+}
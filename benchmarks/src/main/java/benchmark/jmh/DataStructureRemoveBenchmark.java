@@ -0,0 +1,36 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * <h2>
+ * {@code remove} of every data structure on the account files
+ * </h2>
+ *
+ * <p>
+ * Runs for each {@link Structure} and each account file of the project. The generated datasets are in
+ * {@link LargeDataStructureRemoveBenchmark}, without the structures whose {@code remove} is linear.
+ * </p>
+ */
+public class DataStructureRemoveBenchmark extends AbstractDataStructureRemoveBenchmark {
+
+    @Param({
+            "AVL_TREE", "PERSISTENT_AVL_TREE", "BINARY_TREE", "SCAPEGOAT_TREE", "BPLUS_TREE", "LINKED_HASH_TABLE",
+            "CONCURRENT_LINKED_HASH_TABLE", "LONG_HASH_TABLE", "SORTED_LINKED_LIST", "CONCURRENT_SKIP_LIST",
+            "COLUMNAR_ACCOUNT_STORE", "OWNER_INDEXED_AVL_TREE"
+    })
+    public Structure structure;
+
+    @Param({"CONTA_500", "CONTA_1000", "CONTA_5000", "CONTA_10000", "CONTA_50000"})
+    public String dataset;
+
+    @Override
+    protected Structure structure() {
+        return this.structure;
+    }
+
+    @Override
+    protected String dataset() {
+        return this.dataset;
+    }
+}
@@ -0,0 +1,98 @@
+package benchmark.jmh;
+
+import shared.AccountFileOptions;
+import shared.BankAccount;
+import shared.Cpf;
+import shared.FileProcessor;
+import shared.FileResourceUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <h2>
+ * Accounts used by the benchmarks
+ * </h2>
+ *
+ * <p>
+ * The value of the {@code dataset} parameter is either the name of an {@link AccountFileOptions} constant, like
+ * {@code CONTA_5000}, which reads the account file of the project (so the benchmarks must run from the root of the
+ * repository; the files from {@code CONTA_1M} up must be written first by {@code generator.DatasetGenerator}, with
+ * the same seed for comparable runs), or {@code GENERATED_<rows>}, like {@code GENERATED_10000000}, which creates that
+ * many unique accounts.
+ * The generated accounts are shuffled with a fixed seed, so every run and every structure get the same order, and the
+ * unbalanced binary tree doesn't degenerate into a list.
+ * </p>
+ */
+public final class Dataset {
+    private static final String GENERATED_PREFIX = "GENERATED_";
+    private static final long SEED = 42;
+
+    private Dataset() {
+    }
+
+    /**
+     * @param name the value of the {@code dataset} parameter
+     * @return the accounts of the dataset, in the order they are added to the structures
+     */
+    public static List<BankAccount> load(String name) {
+        if (name.startsWith(GENERATED_PREFIX)) {
+            return generate(Integer.parseInt(name.substring(GENERATED_PREFIX.length())));
+        }
+        return FileProcessor.parseFile(AccountFileOptions.valueOf(name).getFileName(), BankAccount::fromLine);
+    }
+
+    /**
+     * @param name the value of the {@code dataset} parameter
+     * @return the account file of the dataset, for the benchmarks of the readers; a generated dataset is written to a
+     *         temporary file in the format of the account files, deleted when the JVM exits
+     */
+    public static Path file(String name) throws IOException {
+        if (!name.startsWith(GENERATED_PREFIX)) return FileResourceUtils.getPath(AccountFileOptions.valueOf(name).getFileName());
+
+        var file = Files.createTempFile("accounts", ".txt");
+        file.toFile().deleteOnExit();
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (var account : load(name)) {
+                writer.write(account.agency() + ";" + account.account() + ";" + account.balance() + ";" + account.ownerCpf().value());
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * @param accounts the accounts of a dataset
+     * @param seed     the seed of the shuffle
+     * @return the same accounts in a random order, to look them up in an order unrelated to the one they were added
+     */
+    public static BankAccount[] shuffled(List<BankAccount> accounts, long seed) {
+        var copy = new ArrayList<>(accounts);
+        Collections.shuffle(copy, new Random(seed));
+        return copy.toArray(BankAccount[]::new);
+    }
+
+    private static List<BankAccount> generate(int rows) {
+        if (rows < 1) throw new IllegalArgumentException("Rows must be positive: " + rows);
+
+        var random = new Random(SEED);
+        var accounts = new ArrayList<BankAccount>(rows);
+        for (int i = 0; i < rows; i++) {
+            // the account number is unique, so no structure drops a duplicate
+            accounts.add(new BankAccount(
+                    1L + random.nextInt(9_999),
+                    (long) i,
+                    random.nextInt(10_000_000) / 100.0,
+                    new Cpf(random.nextLong(100_000_000_000L))
+            ));
+        }
+        Collections.shuffle(accounts, random);
+        return accounts;
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Cost of reading {@link SortedLinkedList} by index
+ * </h2>
+ *
+ * <p>
+ * {@link SortedLinkedList#get(int)} walks the list from the head, so reading every position by index costs O(n^2),
+ * while the iterator reads the same elements in O(n). A sort written over {@code get} and {@code set} pays the same
+ * price for every access, which is why the sorts work on an array copy. The sizes stop at 50000, as the index walk of
+ * larger lists takes minutes.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexWalkBenchmark {
+
+    @Param({"500", "1000", "5000", "10000", "50000"})
+    public int size;
+
+    private final SortedLinkedList<BankAccount> list = new SortedLinkedList<>();
+
+    @Setup
+    public void setUp() {
+        this.list.addAll(SortInput.RANDOM.create(this.size));
+    }
+
+    @Benchmark
+    public void getByIndex(Blackhole blackhole) {
+        for (int i = 0; i < this.list.size(); i++) {
+            blackhole.consume(this.list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void iterator(Blackhole blackhole) {
+        this.list.forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,37 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * <h2>
+ * {@code add}, {@code contains} and {@code forEach} of the data structures that scale
+ * </h2>
+ *
+ * <p>
+ * Runs on a generated dataset of 1 million accounts. The structures with a linear {@code contains} are left out, as a
+ * run would take hours: {@code AVL_TREE} and {@code OWNER_INDEXED_AVL_TREE} (whose lookup is a pre-order scan),
+ * {@code SORTED_LINKED_LIST} and {@code COLUMNAR_ACCOUNT_STORE}. Larger datasets are selected from the command line,
+ * like {@code -p dataset=GENERATED_10000000}.
+ * </p>
+ */
+public class LargeDataStructureBenchmark extends AbstractDataStructureBenchmark {
+
+    @Param({
+            "PERSISTENT_AVL_TREE", "BINARY_TREE", "SCAPEGOAT_TREE", "BPLUS_TREE", "LINKED_HASH_TABLE",
+            "CONCURRENT_LINKED_HASH_TABLE", "LONG_HASH_TABLE", "CONCURRENT_SKIP_LIST"
+    })
+    public Structure structure;
+
+    @Param({"GENERATED_1000000"})
+    public String dataset;
+
+    @Override
+    protected Structure structure() {
+        return this.structure;
+    }
+
+    @Override
+    protected String dataset() {
+        return this.dataset;
+    }
+}
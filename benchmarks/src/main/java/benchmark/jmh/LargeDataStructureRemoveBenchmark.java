@@ -0,0 +1,36 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * <h2>
+ * {@code remove} of the data structures that scale
+ * </h2>
+ *
+ * <p>
+ * Runs on a generated dataset of 1 million accounts. The structures with a linear {@code remove} are left out:
+ * removing every account of {@code SORTED_LINKED_LIST} walks about n²/4 nodes, and {@code COLUMNAR_ACCOUNT_STORE}
+ * shifts its columns on each remove, so a single invocation would take minutes.
+ * </p>
+ */
+public class LargeDataStructureRemoveBenchmark extends AbstractDataStructureRemoveBenchmark {
+
+    @Param({
+            "AVL_TREE", "PERSISTENT_AVL_TREE", "BINARY_TREE", "SCAPEGOAT_TREE", "BPLUS_TREE", "LINKED_HASH_TABLE",
+            "CONCURRENT_LINKED_HASH_TABLE", "LONG_HASH_TABLE", "CONCURRENT_SKIP_LIST", "OWNER_INDEXED_AVL_TREE"
+    })
+    public Structure structure;
+
+    @Param({"GENERATED_1000000"})
+    public String dataset;
+
+    @Override
+    protected Structure structure() {
+        return this.structure;
+    }
+
+    @Override
+    protected String dataset() {
+        return this.dataset;
+    }
+}
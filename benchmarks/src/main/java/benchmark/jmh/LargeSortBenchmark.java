@@ -0,0 +1,67 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Every sort of {@link SortedLinkedList} on large synthetic inputs
+ * </h2>
+ *
+ * <p>
+ * Same as {@link SortBenchmark} with 1 and 10 million accounts. A sort of these sizes takes hundreds of milliseconds,
+ * so each iteration is a single sort, and the list is filled again before each iteration, outside of the measured time.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LargeSortBenchmark {
+
+    @Param({"QUICK_SORT", "QUICK_SORT_ASYNC", "SHELL_SORT", "MERGE_SORT"})
+    public Sort sort;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public SortInput input;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private List<BankAccount> accounts;
+    private final SortedLinkedList<BankAccount> list = new SortedLinkedList<>();
+
+    @Setup
+    public void setUp() {
+        this.accounts = this.input.create(this.size);
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        this.list.clear();
+        this.list.addAll(this.accounts);
+    }
+
+    @Benchmark
+    public SortedLinkedList<BankAccount> sort() {
+        this.sort.sort(this.list);
+        return this.list;
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * {@link SortedLinkedList#quickSortAsync(ForkJoinPool)} at several parallelism levels
+ * </h2>
+ *
+ * <p>
+ * Each trial sorts on its own {@link ForkJoinPool} with the given parallelism, so the speedup over one thread can be
+ * read for each input. The sizes start at 50000, as smaller partitions are sorted sequentially anyway. Even the
+ * smallest sort takes milliseconds, so each iteration is a single sort, and the list is filled again before each
+ * iteration, outside of the measured time.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ParallelSortBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public SortInput input;
+
+    @Param({"50000", "1000000", "10000000"})
+    public int size;
+
+    private List<BankAccount> accounts;
+    private ForkJoinPool pool;
+    private final SortedLinkedList<BankAccount> list = new SortedLinkedList<>();
+
+    @Setup
+    public void setUp() {
+        this.accounts = this.input.create(this.size);
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        this.list.clear();
+        this.list.addAll(this.accounts);
+    }
+
+    @Benchmark
+    public SortedLinkedList<BankAccount> quickSortAsync() {
+        this.list.quickSortAsync(this.pool);
+        return this.list;
+    }
+}
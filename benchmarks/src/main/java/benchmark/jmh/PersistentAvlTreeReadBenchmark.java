@@ -0,0 +1,93 @@
+package benchmark.jmh;
+
+import avl_tree.PersistentAvlTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Snapshot reads of {@link PersistentAvlTree} while a writer changes it
+ * </h2>
+ *
+ * <p>
+ * The tree starts with the first half of the dataset. In the same group, a writer keeps inserting and removing the
+ * accounts of the second half, and the readers take a snapshot and look up a batch of accounts of the first half in it,
+ * so a reader never waits for the writer. The result of {@code read} is per lookup. The number of readers is changed
+ * from the command line, like {@code -tg 7,1} for 7 readers and the writer. The ingestion of the tree is
+ * {@link LargeDataStructureBenchmark#add()} with {@code PERSISTENT_AVL_TREE}.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PersistentAvlTreeReadBenchmark {
+    private static final int LOOKUPS_PER_SNAPSHOT = 1_000;
+
+    @Param({"GENERATED_1000000"})
+    public String dataset;
+
+    private List<BankAccount> accounts;
+    private int half;
+    private PersistentAvlTree<BankAccount> tree;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        int next;
+    }
+
+    @Setup
+    public void setUp() {
+        this.accounts = Dataset.load(this.dataset);
+        this.half = this.accounts.size() / 2;
+        this.tree = new PersistentAvlTree<>();
+        this.accounts.subList(0, this.half).forEach(this.tree::add);
+    }
+
+    @Benchmark
+    @Group("snapshotReads")
+    @GroupThreads(3)
+    @OperationsPerInvocation(LOOKUPS_PER_SNAPSHOT)
+    public int read(Reader reader) {
+        var snapshot = this.tree.snapshot();
+        int found = 0;
+        for (int i = 0; i < LOOKUPS_PER_SNAPSHOT; i++) {
+            if (snapshot.contains(this.accounts.get(reader.random.nextInt(this.half)))) found++;
+        }
+        if (found != LOOKUPS_PER_SNAPSHOT) throw new IllegalStateException("Lost accounts: " + (LOOKUPS_PER_SNAPSHOT - found));
+        return found;
+    }
+
+    @Benchmark
+    @Group("snapshotReads")
+    @GroupThreads(1)
+    public boolean write(Writer writer) {
+        var account = this.accounts.get(this.half + writer.next);
+        writer.next = writer.next + 1 == this.accounts.size() - this.half ? 0 : writer.next + 1;
+        return this.tree.remove(account) || this.tree.add(account);
+    }
+}
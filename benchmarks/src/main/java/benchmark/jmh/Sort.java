@@ -0,0 +1,43 @@
+package benchmark.jmh;
+
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+/**
+ * <h2>
+ * Sorts of {@link SortedLinkedList} under benchmark
+ * </h2>
+ *
+ * <p>
+ * {@link #QUICK_SORT_ASYNC} runs on the common pool; the parallelism levels are measured by
+ * {@link ParallelSortBenchmark}.
+ * </p>
+ */
+public enum Sort {
+    QUICK_SORT {
+        @Override
+        public void sort(SortedLinkedList<BankAccount> list) {
+            list.quickSort();
+        }
+    },
+    QUICK_SORT_ASYNC {
+        @Override
+        public void sort(SortedLinkedList<BankAccount> list) {
+            list.quickSortAsync();
+        }
+    },
+    SHELL_SORT {
+        @Override
+        public void sort(SortedLinkedList<BankAccount> list) {
+            list.shellSort();
+        }
+    },
+    MERGE_SORT {
+        @Override
+        public void sort(SortedLinkedList<BankAccount> list) {
+            list.mergeSort();
+        }
+    };
+
+    public abstract void sort(SortedLinkedList<BankAccount> list);
+}
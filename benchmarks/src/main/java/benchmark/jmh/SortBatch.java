@@ -0,0 +1,44 @@
+package benchmark.jmh;
+
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.List;
+
+/**
+ * <h2>
+ * Lists filled in advance for a batch of sorts
+ * </h2>
+ *
+ * <p>
+ * A sort changes its list, so every invocation needs a list in the input order. Refilling it in a
+ * {@code Level.Invocation} setup is unreliable for sorts that take microseconds, as the timestamps and the setup cost
+ * more than the sort. Instead, the benchmarks run in {@code Mode.SingleShotTime} with a {@code batchSize}, and an
+ * iteration setup fills one list for each invocation of the batch with this class.
+ * </p>
+ */
+final class SortBatch {
+    private final SortedLinkedList<BankAccount>[] lists;
+    private int next;
+
+    @SuppressWarnings("unchecked")
+    SortBatch(List<BankAccount> accounts, int batchSize) {
+        this.lists = new SortedLinkedList[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            this.lists[i] = new SortedLinkedList<>();
+            this.lists[i].addAll(accounts);
+        }
+    }
+
+    /**
+     * @return the next list of the batch, still in the input order
+     * @throws IllegalStateException if the batch has more invocations than lists
+     */
+    SortedLinkedList<BankAccount> next() {
+        if (this.next == this.lists.length) throw new IllegalStateException("Batch exhausted, the batch size doesn't match the number of lists");
+
+        var list = this.lists[this.next];
+        this.lists[this.next++] = null;
+        return list;
+    }
+}
@@ -0,0 +1,70 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import shared.BankAccount;
+import sorting.SortedLinkedList;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h2>
+ * Every sort of {@link SortedLinkedList} on synthetic inputs
+ * </h2>
+ *
+ * <p>
+ * Runs each {@link Sort} on each {@link SortInput} from 500 to 50000 accounts, the same sizes as the account files, which
+ * are measured in their real order by {@link AccountFileSortBenchmark}. These sorts take from microseconds to a few
+ * milliseconds, so each iteration is a batch of sorts on lists filled in advance by a {@link SortBatch}. The larger
+ * sizes are in {@link LargeSortBenchmark}.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = SortBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = SortBenchmark.BATCH_SIZE)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortBenchmark {
+    static final int BATCH_SIZE = 100;
+
+    @Param({"QUICK_SORT", "QUICK_SORT_ASYNC", "SHELL_SORT", "MERGE_SORT"})
+    public Sort sort;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public SortInput input;
+
+    @Param({"500", "1000", "5000", "10000", "50000"})
+    public int size;
+
+    private List<BankAccount> accounts;
+    private SortBatch batch;
+
+    @Setup
+    public void setUp() {
+        this.accounts = this.input.create(this.size);
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        this.batch = new SortBatch(this.accounts, BATCH_SIZE);
+    }
+
+    @Benchmark
+    public SortedLinkedList<BankAccount> sort() {
+        var list = this.batch.next();
+        this.sort.sort(list);
+        return list;
+    }
+}
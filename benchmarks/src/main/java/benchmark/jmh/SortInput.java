@@ -0,0 +1,70 @@
+package benchmark.jmh;
+
+import shared.BankAccount;
+import shared.Cpf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <h2>
+ * Orders of the accounts given to the sorts
+ * </h2>
+ *
+ * <p>
+ * Each input has unique accounts in a known order, except {@link #FEW_UNIQUE}, which repeats a few accounts over and
+ * over, the case where a quick sort that doesn't split the keys equal to the pivot goes quadratic. The order of the
+ * real account files is measured by {@link AccountFileSortBenchmark}.
+ * </p>
+ */
+public enum SortInput {
+    RANDOM {
+        @Override
+        long accountAt(int index, int size, Random random) {
+            return index;
+        }
+    },
+    SORTED {
+        @Override
+        long accountAt(int index, int size, Random random) {
+            return index;
+        }
+    },
+    REVERSED {
+        @Override
+        long accountAt(int index, int size, Random random) {
+            return size - index;
+        }
+    },
+    FEW_UNIQUE {
+        @Override
+        long accountAt(int index, int size, Random random) {
+            return random.nextInt(DISTINCT_KEYS);
+        }
+    };
+
+    private static final int DISTINCT_KEYS = 16;
+    private static final long SEED = 42;
+    private static final Long AGENCY = 1L;
+    private static final Cpf OWNER = new Cpf(0);
+
+    abstract long accountAt(int index, int size, Random random);
+
+    /**
+     * @param size the number of accounts
+     * @return the accounts in the order of this input, always the same for the same size
+     */
+    public List<BankAccount> create(int size) {
+        if (size < 1) throw new IllegalArgumentException("Size must be positive: " + size);
+
+        var random = new Random(SEED);
+        var accounts = new ArrayList<BankAccount>(size);
+        for (int i = 0; i < size; i++) {
+            accounts.add(new BankAccount(AGENCY, this.accountAt(i, size, random), 0, OWNER));
+        }
+        if (this == RANDOM) Collections.shuffle(accounts, random);
+        return accounts;
+    }
+}
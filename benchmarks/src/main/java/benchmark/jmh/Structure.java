@@ -0,0 +1,107 @@
+package benchmark.jmh;
+
+import avl_tree.AvlTree;
+import avl_tree.PersistentAvlTree;
+import binary_tree.BinaryTree;
+import btree.BPlusTree;
+import columnar.ColumnarAccountStore;
+import hash.ConcurrentLinkedHashTable;
+import hash.LinkedHashTable;
+import hash.LongHashTable;
+import shared.BankAccount;
+import shared.DataStructure;
+import shared.OwnerIndexedDataStructure;
+import skip_list.ConcurrentSkipList;
+import sorting.SortedLinkedList;
+
+/**
+ * <h2>
+ * Every {@link DataStructure} of bank accounts under benchmark
+ * </h2>
+ *
+ * <p>
+ * The names of the constants are the values of the {@code structure} parameter of the benchmarks, like
+ * {@code -p structure=AVL_TREE,BPLUS_TREE}.
+ * </p>
+ */
+public enum Structure {
+    AVL_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new AvlTree<>();
+        }
+    },
+    PERSISTENT_AVL_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new PersistentAvlTree<>();
+        }
+    },
+    BINARY_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new BinaryTree<>();
+        }
+    },
+    SCAPEGOAT_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return BinaryTree.scapegoat();
+        }
+    },
+    BPLUS_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new BPlusTree<>();
+        }
+    },
+    LINKED_HASH_TABLE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new LinkedHashTable<>();
+        }
+    },
+    CONCURRENT_LINKED_HASH_TABLE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new ConcurrentLinkedHashTable<>();
+        }
+    },
+    LONG_HASH_TABLE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new LongHashTable<>(BankAccount::primaryKey);
+        }
+    },
+    SORTED_LINKED_LIST {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new SortedLinkedList<>();
+        }
+    },
+    CONCURRENT_SKIP_LIST {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new ConcurrentSkipList<>();
+        }
+    },
+    COLUMNAR_ACCOUNT_STORE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new ColumnarAccountStore();
+        }
+    },
+    OWNER_INDEXED_AVL_TREE {
+        @Override
+        public DataStructure<BankAccount> create() {
+            return new OwnerIndexedDataStructure(new AvlTree<>());
+        }
+    };
+
+    /**
+     * Create an empty structure with its default capacity, so the benchmarks also measure how it grows.
+     *
+     * @return an empty structure
+     */
+    public abstract DataStructure<BankAccount> create();
+}
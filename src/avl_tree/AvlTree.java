@@ -1,16 +1,36 @@
 package avl_tree;
 
+import metrics.Measurable;
+import metrics.Metrics;
 import shared.Tree;
-
+import shared.TreeArguments;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 
-public class AvlTree<T extends Comparable<T>> implements Tree<T> {
+public class AvlTree<T extends Comparable<T>> implements Tree<T>, Measurable {
+
+    // an AVL tree with n nodes is at most 1.44 * log2(n) high, so 64 levels are enough for any int size
+    private static final int MAX_HEIGHT = 64;
 
     private Node<T> root;
     private int size;
 
+    // single rotations applied by the inserts and deletes, only counted when the metrics are enabled
+    private long rotations;
+
+    // nodes visited by the last insert or delete, reused to rebalance without recursion
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Node<T>[] path = new Node[MAX_HEIGHT];
+
 
     @Override
     public boolean add(T data) {
@@ -22,11 +42,9 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
             return true;
         }
 
-        return this.insert(this.root, data).map(node -> {
-            this.root = node;
-            this.size++;
-            return true;
-        }).orElse(false);
+        this.insert(data);
+        this.size++;
+        return true;
     }
 
     @Override
@@ -35,11 +53,10 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
 
         if (isEmpty()) return false;
 
-        return this.delete(this.root, data).map(node -> {
-            this.root = node;
-            this.size--;
-            return true;
-        }).orElse(false);
+        if (!this.delete(data)) return false;
+
+        this.size--;
+        return true;
     }
 
 
@@ -121,57 +138,127 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
      * inserting a new node.
      * </p>
      *
-     * @param node The node to be compared
+     * <p>
+     * The insert is iterative: the nodes visited on the way down are kept in {@code path}, and the tree is rebalanced
+     * going back up through them. Nothing is allocated besides the new node, and the stack doesn't grow with the height
+     * of the tree. Equal elements go to the right subtree.
+     * </p>
+     *
      * @param data The data to be inserted
-     * @return Optional of the new node
      * @see <a href="https://www.cs.usfca.edu/~galles/visualization/AVLtree.html">AVL Tree Visualization</a>
-     * @see java.util.Optional
      */
-    private Optional<Node<T>> insert(Node<T> node, T data) {
-        if (Objects.isNull(node)) return Optional.empty();
+    private void insert(T data) {
+        int depth = 0;
+        Node<T> node = this.root;
+        while (Objects.nonNull(node)) {
+            this.path[depth++] = node;
+            node = node.biggerThan(data) ? node.left : node.right;
+        }
 
-        if (node.biggerThan(data)) {
-            node.left = this.insert(node.left, data).orElseGet(() -> new Node<>(data));
-        } else if (node.data.compareTo(data) <= 0) {
-            node.right = this.insert(node.right, data).orElseGet(() -> new Node<>(data));
+        Node<T> parent = this.path[depth - 1];
+        if (parent.biggerThan(data)) {
+            parent.left = new Node<>(data);
         } else {
-            return Optional.empty();
+            parent.right = new Node<>(data);
         }
 
-        node.updateHeight();
-        return applyRotation(node);
+        this.rebalance(depth);
     }
 
-    private Optional<Node<T>> delete(Node<T> node, T data) {
-        if (Objects.isNull(node)) return Optional.empty();
+    /**
+     * <h2>
+     * Delete a node from the tree
+     * </h2>
+     *
+     * <p>
+     * Iterative like {@link #insert(Comparable)}. A node with two children takes the data of the greatest node of its
+     * left subtree, and that node is the one unlinked from the tree.
+     * </p>
+     *
+     * @param data The data to be deleted
+     * @return true if the data was found and deleted, false otherwise
+     */
+    private boolean delete(T data) {
+        int depth = 0;
+        Node<T> node = this.root;
+        while (Objects.nonNull(node) && !node.equalsTo(data)) {
+            this.path[depth++] = node;
+            node = node.biggerThan(data) ? node.left : node.right;
+        }
 
-        if (node.biggerThan(data)) {
-            node.left = this.delete(node.left, data).orElse(null);
-        } else if (node.lowerThan(data)) {
-            node.right = this.delete(node.right, data).orElse(null);
-        } else {
-            if (Objects.isNull(node.left) && Objects.isNull(node.right)) {
-                return Optional.empty();
-            } else if (Objects.isNull(node.left)) {
-                return Optional.of(node.right);
-            } else if (Objects.isNull(node.right)) {
-                return Optional.of(node.left);
-            } else {
-                // search the greater node in the left subtree
-                Node<T> greaterNode = node.left;
-                while (Objects.nonNull(greaterNode.right)) {
-                    greaterNode = greaterNode.right;
+        if (Objects.isNull(node)) {
+            this.clearPath(depth);
+            return false;
+        }
+
+        if (Objects.nonNull(node.left) && Objects.nonNull(node.right)) {
+            // search the greater node in the left subtree
+            this.path[depth++] = node;
+            Node<T> greaterNode = node.left;
+            while (Objects.nonNull(greaterNode.right)) {
+                this.path[depth++] = greaterNode;
+                greaterNode = greaterNode.right;
+            }
+            node.data = greaterNode.data;
+            node = greaterNode;
+        }
+
+        Node<T> child = Objects.nonNull(node.left) ? node.left : node.right;
+        this.replaceChild(depth - 1, node, child);
+        this.rebalance(depth);
+        return true;
+    }
+
+    /**
+     * Update the heights and apply the rotations from the deepest node of the path up to the root. Once a subtree keeps
+     * its height, nothing above it needs to rotate, and only the subtree sizes are updated up to the root.
+     *
+     * @param depth the number of nodes in the path
+     */
+    private void rebalance(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<T> node = this.path[i];
+            int oldHeight = node.height;
+            node.updateHeight();
+
+            Node<T> balanced = this.applyRotation(node);
+            if (balanced != node) this.replaceChild(i - 1, node, balanced);
+
+            this.path[i] = null;
+            if (balanced.height == oldHeight) {
+                // nothing above can be unbalanced anymore, only the subtree sizes change
+                for (int j = i - 1; j >= 0; j--) {
+                    this.path[j].updateSize();
+                    this.path[j] = null;
                 }
-                node.data = greaterNode.data;
-                node.left = this.delete(node.left, greaterNode.data).orElse(null);
+                break;
             }
         }
+    }
 
-        node.updateHeight();
-        return applyRotation(node);
+    /**
+     * Replace a child of the node at the given position of the path, or the root if the position is -1.
+     */
+    private void replaceChild(int parentIndex, Node<T> oldChild, Node<T> newChild) {
+        if (parentIndex < 0) {
+            this.root = newChild;
+            return;
+        }
+
+        Node<T> parent = this.path[parentIndex];
+        if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
     }
 
-    private Optional<Node<T>> applyRotation(Node<T> node) {
+    // don't keep references to nodes that may leave the tree
+    private void clearPath(int depth) {
+        Arrays.fill(this.path, 0, depth, null);
+    }
+
+    private Node<T> applyRotation(Node<T> node) {
         int balance = node.height(node.left) - node.height(node.right);
 
         if (balance > 1) {
@@ -180,7 +267,7 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
                 // left right case
                 node.left = leftRotation(node.left);
             }
-            return Optional.of(rightRotation(node));
+            return rightRotation(node);
         }
 
         if (balance < -1) {
@@ -189,13 +276,14 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
                 // right left case
                 node.right = rightRotation(node.right);
             }
-            return Optional.of(leftRotation(node));
+            return leftRotation(node);
         }
 
-        return Optional.of(node);
+        return node;
     }
 
     private Node<T> leftRotation(Node<T> node) {
+        if (Metrics.ENABLED) this.rotations++;
         Node<T> newRoot = node.right;
         node.right = newRoot.left;
         newRoot.left = node;
@@ -205,6 +293,7 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
     }
 
     private Node<T> rightRotation(Node<T> node) {
+        if (Metrics.ENABLED) this.rotations++;
         Node<T> newRoot = node.left;
         node.left = newRoot.right;
         newRoot.right = node;
@@ -213,6 +302,25 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
         return newRoot;
     }
 
+    /**
+     * @return the number of levels of the tree, 0 if it is empty
+     */
+    public int height() {
+        return Objects.isNull(this.root) ? 0 : this.root.height;
+    }
+
+    /**
+     * The height of the tree and the number of single rotations applied so far (a double rotation counts as two). The
+     * rotations are only counted when {@link Metrics#ENABLED} is true.
+     */
+    @Override
+    public Map<String, Number> metrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("height", this.height());
+        metrics.put("rotations", this.rotations);
+        return metrics;
+    }
+
     private Optional<T> traversal(Node<T> root, T data) {
         if (Objects.isNull(root)) return Optional.empty();
 
@@ -248,17 +356,277 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
         this.buildString(root.right, sb);
     }
 
+    /**
+     * <h2>
+     * Rank of an element
+     * </h2>
+     *
+     * <p>
+     * Each node keeps the size of its subtree, so the rank is found walking down a single path: every time the search
+     * goes right, the left subtree and the node itself are lower than the element and are counted at once. O(log n).
+     * </p>
+     *
+     * @param data the element to be ranked, it doesn't need to be in the tree
+     * @return the number of elements lower than the given one
+     */
+    @Override
+    public int rank(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+        return this.countLower(data, false);
+    }
+
+    /**
+     * <h2>
+     * Select the k-th element
+     * </h2>
+     *
+     * <p>
+     * Walks down from the root comparing k with the size of the left subtree, in O(log n).
+     * </p>
+     *
+     * @param k the position of the element, from 0 to {@code size() - 1}
+     * @return the k-th lowest element
+     * @throws IllegalArgumentException if k is out of bounds
+     */
+    @Override
+    public T select(int k) {
+        if (k < 0 || k >= this.size) throw new IllegalArgumentException("Index out of bounds");
+
+        Node<T> node = this.root;
+        while (true) {
+            int leftSize = Node.size(node.left);
+            if (k == leftSize) return node.data;
+
+            if (k < leftSize) {
+                node = node.left;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * <h2>
+     * Range query
+     * </h2>
+     *
+     * <p>
+     * In-order walk that starts at the first element not lower than {@code from} and stops at the first element greater
+     * than {@code to}. The left subtrees of the nodes lower than {@code from} are never visited, so it runs in
+     * O(log n + k), where k is the number of elements in the range.
+     * </p>
+     *
+     * @param from     the lower bound, inclusive
+     * @param to       the upper bound, inclusive
+     * @param consumer the function applied to each element in the range
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    @Override
+    public void range(T from, T to, Consumer<T> consumer) {
+        TreeArguments.requireRange(from, to);
+
+        Deque<Node<T>> pending = new ArrayDeque<>();
+        pushFrom(pending, this.root, from);
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            if (node.biggerThan(to)) return;
+
+            consumer.accept(node.data);
+            pushFrom(pending, node.right, from);
+        }
+    }
+
+    private static <T extends Comparable<T>> void pushFrom(Deque<Node<T>> pending, Node<T> node, T from) {
+        while (Objects.nonNull(node)) {
+            if (node.data.compareTo(from) < 0) {
+                // the node and its left subtree are out of the range
+                node = node.right;
+            } else {
+                pending.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    /**
+     * <h2>
+     * Count the elements in a range
+     * </h2>
+     *
+     * <p>
+     * The difference of two ranks, so it runs in O(log n) no matter how many elements are in the range.
+     * </p>
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, inclusive
+     * @return the number of elements in the range
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    @Override
+    public int countInRange(T from, T to) {
+        TreeArguments.requireRange(from, to);
+        return this.countLower(to, true) - this.countLower(from, false);
+    }
+
+    /**
+     * Number of elements lower than the given one, or lower or equal if inclusive.
+     */
+    private int countLower(T data, boolean inclusive) {
+        int count = 0;
+        Node<T> node = this.root;
+        while (Objects.nonNull(node)) {
+            int comparison = node.data.compareTo(data);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                count += Node.size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <h2>
+     * Build a tree from sorted elements
+     * </h2>
+     *
+     * @param sorted the elements, in ascending order
+     * @param <T>    generic type
+     * @return a balanced tree with the given elements
+     * @see #bulkLoad(Comparable[])
+     */
+    public static <T extends Comparable<T>> AvlTree<T> fromSorted(T[] sorted) {
+        var tree = new AvlTree<T>();
+        tree.bulkLoad(sorted);
+        return tree;
+    }
+
+    /**
+     * <h2>
+     * Replace the content of the tree with the given sorted elements
+     * </h2>
+     *
+     * <p>
+     * The middle element of the array becomes the root and each half is built the same way, so the tree is perfectly
+     * balanced (so it is a valid AVL tree) and it is built in O(n) time, without comparing or rotating anything.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkLoad(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+        this.root = this.build(sorted, 0, sorted.length - 1);
+        this.size = sorted.length;
+    }
+
+    /**
+     * <h2>
+     * Add a sorted batch of elements to the tree
+     * </h2>
+     *
+     * <p>
+     * The elements of the tree are read in order and merged with the batch, and the tree is rebuilt from the result by
+     * {@link #bulkLoad(Comparable[])}. It costs O(n + m), against O(m log(n + m)) of adding the batch one by one.
+     * Elements of the tree come before equal elements of the batch.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkMerge(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+
+        T[] merged = TreeArguments.newArray(this.size + sorted.length);
+        var current = this.iterator();
+        T next = current.hasNext() ? current.next() : null;
+        int i = 0;
+        int j = 0;
+        while (Objects.nonNull(next) || j < sorted.length) {
+            if (Objects.nonNull(next) && (j == sorted.length || next.compareTo(sorted[j]) <= 0)) {
+                merged[i++] = next;
+                next = current.hasNext() ? current.next() : null;
+            } else {
+                merged[i++] = sorted[j++];
+            }
+        }
+
+        this.bulkLoad(merged);
+    }
+
+    private Node<T> build(T[] sorted, int from, int to) {
+        if (from > to) return null;
+
+        int middle = (from + to) >>> 1;
+        var node = new Node<>(sorted[middle]);
+        node.left = this.build(sorted, from, middle - 1);
+        node.right = this.build(sorted, middle + 1, to);
+        node.updateHeight();
+        return node;
+    }
+
+    /**
+     * <h2>
+     * In-order iterator over the tree
+     * </h2>
+     *
+     * <p>
+     * Same order as {@link #forEach(Consumer)}, but the elements are pulled one at a time. The iterator keeps only the
+     * path from the current node to the root, so the extra memory is proportional to the height of the tree.
+     * </p>
+     *
+     * @return an in-order iterator of the tree
+     */
+    public Iterator<T> iterator() {
+        return new InOrderIterator<>(this.root);
+    }
+
+    private static class InOrderIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final Deque<Node<T>> path = new ArrayDeque<>();
+
+        InOrderIterator(Node<T> root) {
+            this.pushLeft(root);
+        }
+
+        private void pushLeft(Node<T> node) {
+            while (Objects.nonNull(node)) {
+                this.path.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.path.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (this.path.isEmpty()) throw new NoSuchElementException();
+            var node = this.path.pop();
+            this.pushLeft(node.right);
+            return node.data;
+        }
+    }
+
     private static class Node<T extends Comparable<T>> {
         private T data;
         private Node<T> left;
         private Node<T> right;
         private int height;
+        // number of nodes of the subtree rooted at this node
+        private int size;
 
         public Node(T data) {
             this.data = data;
             this.left = null;
             this.right = null;
             this.height = 1;
+            this.size = 1;
         }
 
         public boolean biggerThan(T data) {
@@ -267,14 +635,23 @@ public class AvlTree<T extends Comparable<T>> implements Tree<T> {
 
         public void updateHeight() {
             this.height = Math.max(height(this.left), height(this.right)) + 1;
+            this.updateSize();
+        }
+
+        public void updateSize() {
+            this.size = size(this.left) + size(this.right) + 1;
         }
 
         public int height(Node<T> node) {
             return Objects.isNull(node) ? 0 : node.height;
         }
 
-        public boolean lowerThan(T data) {
-            return this.data.compareTo(data) < 0;
+        public static int size(Node<?> node) {
+            return Objects.isNull(node) ? 0 : node.size;
+        }
+
+        public boolean equalsTo(T data) {
+            return this.data.compareTo(data) == 0;
         }
     }
 }
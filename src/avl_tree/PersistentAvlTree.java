@@ -0,0 +1,448 @@
+package avl_tree;
+
+import shared.Tree;
+import shared.TreeArguments;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Persistent AVL tree
+ * </h2>
+ *
+ * <p>
+ * An AVL tree whose nodes are never modified. An insert or a remove copies only the nodes on the path from the root to
+ * the changed node (O(log n) nodes, the rest of the tree is shared) and publishes the new root with a compare-and-set.
+ * A reader that got a root sees a complete and balanced tree forever, no matter what the writers do after that, so
+ * reads don't need any lock: {@link #snapshot()} costs O(1) and the iteration of a snapshot is stable.
+ * </p>
+ *
+ * <p>
+ * Writers are lock-free too: if another writer published a root in the meantime, the operation is redone on the new
+ * root. With a single writer, which is the case of the ingestion, the compare-and-set never fails.
+ * </p>
+ *
+ * <p>
+ * Like {@link AvlTree}, equal elements go to the right subtree, and each node keeps the size of its subtree, so the
+ * order statistics run in O(log n).
+ * </p>
+ *
+ * @param <T> generic type
+ * @see <a href="https://en.wikipedia.org/wiki/Persistent_data_structure#Trees">Persistent trees</a>
+ */
+public class PersistentAvlTree<T extends Comparable<T>> implements Tree<T> {
+
+    private final AtomicReference<Node<T>> root;
+
+    public PersistentAvlTree() {
+        this.root = new AtomicReference<>();
+    }
+
+    private PersistentAvlTree(Node<T> root) {
+        this.root = new AtomicReference<>(root);
+    }
+
+    /**
+     * <h2>
+     * Snapshot of the tree
+     * </h2>
+     *
+     * <p>
+     * Returns a tree with the current content, in O(1), sharing all the nodes. Later writes to this tree don't change
+     * the snapshot and writes to the snapshot don't change this tree.
+     * </p>
+     *
+     * @return an independent tree with the current elements
+     */
+    public PersistentAvlTree<T> snapshot() {
+        return new PersistentAvlTree<>(this.root.get());
+    }
+
+    @Override
+    public boolean add(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        Node<T> current;
+        do {
+            current = this.root.get();
+        } while (!this.root.compareAndSet(current, insert(current, data)));
+        return true;
+    }
+
+    @Override
+    public boolean remove(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        Node<T> current;
+        Node<T> updated;
+        do {
+            current = this.root.get();
+            updated = delete(current, data);
+            // delete returns the same node when the data is not in the tree
+            if (updated == current) return false;
+        } while (!this.root.compareAndSet(current, updated));
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return Node.size(this.root.get());
+    }
+
+    @Override
+    public boolean contains(T data) {
+        return Objects.nonNull(this.traversal(data));
+    }
+
+    @Override
+    public void clear() {
+        this.root.set(null);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return Objects.isNull(this.root.get());
+    }
+
+    /**
+     * <h2>
+     * Search the given data in the tree
+     * </h2>
+     *
+     * <p>
+     * Binary search from the root, O(log n).
+     * </p>
+     *
+     * @param data The data to be searched
+     * @return the element of the tree equal to the given one, or null
+     */
+    @Override
+    public T traversal(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        Node<T> node = this.root.get();
+        while (Objects.nonNull(node)) {
+            int comparison = node.data.compareTo(data);
+            if (comparison == 0) return node.data;
+            node = comparison > 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        this.iterator().forEachRemaining(consumer);
+    }
+
+    /**
+     * <h2>
+     * In-order iterator over the tree
+     * </h2>
+     *
+     * <p>
+     * The iterator works on the root of the moment it is created, so it is never affected by concurrent writes.
+     * </p>
+     *
+     * @return an in-order iterator of the current content of the tree
+     */
+    public Iterator<T> iterator() {
+        return new InOrderIterator<>(this.root.get());
+    }
+
+    @Override
+    public int rank(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+        return countLower(this.root.get(), data, false);
+    }
+
+    @Override
+    public T select(int k) {
+        Node<T> node = this.root.get();
+        if (k < 0 || k >= Node.size(node)) throw new IllegalArgumentException("Index out of bounds");
+
+        while (true) {
+            int leftSize = Node.size(node.left);
+            if (k == leftSize) return node.data;
+
+            if (k < leftSize) {
+                node = node.left;
+            } else {
+                k -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public void range(T from, T to, Consumer<T> consumer) {
+        TreeArguments.requireRange(from, to);
+
+        Deque<Node<T>> pending = new ArrayDeque<>();
+        pushFrom(pending, this.root.get(), from);
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            if (node.data.compareTo(to) > 0) return;
+
+            consumer.accept(node.data);
+            pushFrom(pending, node.right, from);
+        }
+    }
+
+    @Override
+    public int countInRange(T from, T to) {
+        TreeArguments.requireRange(from, to);
+
+        // both counts must come from the same version of the tree
+        Node<T> current = this.root.get();
+        return countLower(current, to, true) - countLower(current, from, false);
+    }
+
+    /**
+     * <h2>
+     * Replace the content of the tree with the given sorted elements
+     * </h2>
+     *
+     * <p>
+     * Builds a perfectly balanced tree in O(n) and publishes it at once.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkLoad(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+        this.root.set(build(sorted, 0, sorted.length - 1));
+    }
+
+    /**
+     * <h2>
+     * Add a sorted batch of elements to the tree
+     * </h2>
+     *
+     * <p>
+     * Merges the batch with the current elements and publishes a tree rebuilt from the result, in O(n + m). Elements of
+     * the tree come before equal elements of the batch.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkMerge(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+
+        Node<T> current;
+        Node<T> merged;
+        do {
+            current = this.root.get();
+            merged = build(merge(current, sorted), 0, Node.size(current) + sorted.length - 1);
+        } while (!this.root.compareAndSet(current, merged));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> current = this.root.get();
+        if (Objects.nonNull(current)) stack.push(current);
+
+        while (!stack.isEmpty()) {
+            var node = stack.pop();
+            sb.append(node.data).append(" ");
+            if (Objects.nonNull(node.left)) {
+                sb.append("left -> ").append(node.left.data).append(" ");
+            }
+            if (Objects.nonNull(node.right)) {
+                sb.append("right -> ").append(node.right.data).append(" ");
+                stack.push(node.right);
+            }
+            sb.append("\n");
+            if (Objects.nonNull(node.left)) stack.push(node.left);
+        }
+        return sb.toString();
+    }
+
+    private static <T extends Comparable<T>> Node<T> insert(Node<T> node, T data) {
+        if (Objects.isNull(node)) return new Node<>(data, null, null);
+
+        if (node.data.compareTo(data) > 0) {
+            return balance(node.data, insert(node.left, data), node.right);
+        }
+        return balance(node.data, node.left, insert(node.right, data));
+    }
+
+    /**
+     * Copy of the subtree without the given data, or the same node if the data is not in the subtree. A node with two
+     * children takes the greatest element of its left subtree.
+     */
+    private static <T extends Comparable<T>> Node<T> delete(Node<T> node, T data) {
+        if (Objects.isNull(node)) return null;
+
+        int comparison = node.data.compareTo(data);
+        if (comparison > 0) {
+            var left = delete(node.left, data);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        }
+        if (comparison < 0) {
+            var right = delete(node.right, data);
+            return right == node.right ? node : balance(node.data, node.left, right);
+        }
+
+        if (Objects.isNull(node.left)) return node.right;
+        if (Objects.isNull(node.right)) return node.left;
+
+        var greaterNode = node.left;
+        while (Objects.nonNull(greaterNode.right)) {
+            greaterNode = greaterNode.right;
+        }
+        return balance(greaterNode.data, deleteMax(node.left), node.right);
+    }
+
+    private static <T extends Comparable<T>> Node<T> deleteMax(Node<T> node) {
+        if (Objects.isNull(node.right)) return node.left;
+        return balance(node.data, node.left, deleteMax(node.right));
+    }
+
+    /**
+     * New node with the given children, rotated if they are unbalanced. The children are already balanced and their
+     * heights differ by at most 2, as after a single insert or delete.
+     */
+    private static <T extends Comparable<T>> Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int balance = Node.height(left) - Node.height(right);
+
+        if (balance > 1) {
+            if (Node.height(left.left) < Node.height(left.right)) {
+                // left right case
+                var pivot = left.right;
+                return new Node<>(pivot.data, new Node<>(left.data, left.left, pivot.left), new Node<>(data, pivot.right, right));
+            }
+            // left-left case
+            return new Node<>(left.data, left.left, new Node<>(data, left.right, right));
+        }
+
+        if (balance < -1) {
+            if (Node.height(right.right) < Node.height(right.left)) {
+                // right left case
+                var pivot = right.left;
+                return new Node<>(pivot.data, new Node<>(data, left, pivot.left), new Node<>(right.data, pivot.right, right.right));
+            }
+            // right-right case
+            return new Node<>(right.data, new Node<>(data, left, right.left), right.right);
+        }
+
+        return new Node<>(data, left, right);
+    }
+
+    private static <T extends Comparable<T>> int countLower(Node<T> node, T data, boolean inclusive) {
+        int count = 0;
+        while (Objects.nonNull(node)) {
+            int comparison = node.data.compareTo(data);
+            if (comparison < 0 || (inclusive && comparison == 0)) {
+                count += Node.size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static <T extends Comparable<T>> void pushFrom(Deque<Node<T>> pending, Node<T> node, T from) {
+        while (Objects.nonNull(node)) {
+            if (node.data.compareTo(from) < 0) {
+                // the node and its left subtree are out of the range
+                node = node.right;
+            } else {
+                pending.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    private static <T extends Comparable<T>> T[] merge(Node<T> current, T[] sorted) {
+        T[] merged = TreeArguments.newArray(Node.size(current) + sorted.length);
+        var iterator = new InOrderIterator<>(current);
+        T next = iterator.hasNext() ? iterator.next() : null;
+        int i = 0;
+        int j = 0;
+        while (Objects.nonNull(next) || j < sorted.length) {
+            if (Objects.nonNull(next) && (j == sorted.length || next.compareTo(sorted[j]) <= 0)) {
+                merged[i++] = next;
+                next = iterator.hasNext() ? iterator.next() : null;
+            } else {
+                merged[i++] = sorted[j++];
+            }
+        }
+        return merged;
+    }
+
+    private static <T extends Comparable<T>> Node<T> build(T[] sorted, int from, int to) {
+        if (from > to) return null;
+
+        int middle = (from + to) >>> 1;
+        return new Node<>(sorted[middle], build(sorted, from, middle - 1), build(sorted, middle + 1, to));
+    }
+
+    private static class InOrderIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final Deque<Node<T>> path = new ArrayDeque<>();
+
+        InOrderIterator(Node<T> root) {
+            this.pushLeft(root);
+        }
+
+        private void pushLeft(Node<T> node) {
+            while (Objects.nonNull(node)) {
+                this.path.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.path.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (this.path.isEmpty()) throw new NoSuchElementException();
+            var node = this.path.pop();
+            this.pushLeft(node.right);
+            return node.data;
+        }
+    }
+
+    /**
+     * Immutable node. The fields are final, so a node published through the root is safely visible to every thread.
+     */
+    private static final class Node<T extends Comparable<T>> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int height;
+        // number of nodes of the subtree rooted at this node
+        private final int size;
+
+        Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+
+        static int height(Node<?> node) {
+            return Objects.isNull(node) ? 0 : node.height;
+        }
+
+        static int size(Node<?> node) {
+            return Objects.isNull(node) ? 0 : node.size;
+        }
+    }
+}
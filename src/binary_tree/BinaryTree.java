@@ -1,36 +1,99 @@
 package binary_tree;
 
+import metrics.Measurable;
+import metrics.Metrics;
 import shared.Tree;
-
+import shared.TreeArguments;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.Consumer;
 
-public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
+public class BinaryTree<T extends Comparable<T>> implements Tree<T>, Measurable {
+
+    private static final double DEFAULT_ALPHA = 2.0 / 3.0;
+
+    // the path of the scapegoat mode starts with this capacity and doubles when an insert goes deeper
+    private static final int INITIAL_PATH_CAPACITY = 8;
 
     private Node<T> root;
     private int size;
 
+    // weight balance factor of the scapegoat mode, 0 when the tree is not balanced
+    private final double alpha;
+
+    // biggest size since the last rebuild of the whole tree, used by the scapegoat mode
+    private int maxSize;
+
+    // nodes visited by the last insert in the scapegoat mode
+    private Node<T>[] path;
+
+    // subtrees rebuilt by the scapegoat mode, only counted when the metrics are enabled
+    private long rebuilds;
+
     public BinaryTree() {
         root = null;
         size = 0;
+        alpha = 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private BinaryTree(double alpha) {
+        root = null;
+        size = 0;
+        this.alpha = alpha;
+        this.path = new Node[INITIAL_PATH_CAPACITY];
+    }
+
+    /**
+     * <h2>
+     * Binary tree that balances itself as a scapegoat tree
+     * </h2>
+     *
+     * <p>
+     * A plain binary search tree degenerates into a linked list when the input is sorted, which is the case of the account
+     * files, ordered by agency. In the scapegoat mode, the tree keeps the same nodes, with no extra field, but each insert
+     * checks the depth of the new node: when it is deeper than log<sub>1/alpha</sub>(n), an ancestor whose subtree is too
+     * unbalanced (the scapegoat) is found and its subtree is rebuilt as a perfectly balanced one. The whole tree is also
+     * rebuilt when the removes leave it too small for its height. The height stays O(log n), with an amortized cost of
+     * O(log n) per insert and remove.
+     * </p>
+     *
+     * @param alpha the weight balance factor, between 0.5 (strictly balanced, more rebuilds) and 1 (never rebuilds)
+     * @param <T>   generic type
+     * @return an empty tree in the scapegoat mode
+     * @throws IllegalArgumentException if alpha is not in (0.5, 1)
+     * @see <a href="https://en.wikipedia.org/wiki/Scapegoat_tree">Scapegoat tree</a>
+     */
+    public static <T extends Comparable<T>> BinaryTree<T> scapegoat(double alpha) {
+        if (!(alpha > 0.5 && alpha < 1)) throw new IllegalArgumentException("Alpha must be between 0.5 and 1");
+        return new BinaryTree<>(alpha);
+    }
+
+    public static <T extends Comparable<T>> BinaryTree<T> scapegoat() {
+        return scapegoat(DEFAULT_ALPHA);
     }
 
     @Override
     public boolean add(T data) {
         if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
 
+        this.size++;
+        this.maxSize = Math.max(this.maxSize, this.size);
+
         if (isEmpty()) {
             this.root = new Node<>(data);
-            this.size++;
             return true;
         }
 
-        var result = this.insert(this.root, data);
-
-        if (result) this.size++;
-
-        return result;
+        this.insert(data);
+        return true;
     }
 
     @Override
@@ -39,11 +102,16 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
 
         if (isEmpty()) return false;
 
-        var result = this.delete(this.root, data).isPresent();
+        if (!this.delete(data)) return false;
 
-        if (result) this.size--;
+        this.size--;
+
+        if (this.isBalanced() && this.size < this.alpha * this.maxSize) {
+            this.root = this.rebuild(this.root, this.size);
+            this.maxSize = this.size;
+        }
 
-        return result;
+        return true;
     }
 
     @Override
@@ -64,28 +132,33 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
     public void clear() {
         this.root = null;
         this.size = 0;
+        this.maxSize = 0;
     }
 
     /**
      * <h2>
-     * Search method - This Method perform an in order search in the tree
+     * Search method - This Method searches the given value in the tree
      * </h2>
      *
      * <p>
-     * This method perform a in order search in the tree, returning the index of the value in the tree. If the value is not in the tree, the method returns -1.
+     * This method walks down from the root, going left when the value is lower than the node and right otherwise, and
+     * returns the first node equal to the value. If the value is not in the tree, the method returns null.
      * </p>
      *
      * @param data value to be searched
-     * @return the index of the value in the tree
-     * @see <a href="https://en.wikipedia.org/wiki/Tree_traversal#In-order_(LNR)">In order search</a>
+     * @return the value of the tree equal to the given one, or null
+     * @see <a href="https://en.wikipedia.org/wiki/Binary_search_tree#Searching">Binary search tree search</a>
      */
     @Override
     public T traversal(T data) {
         if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
 
-        if (isEmpty()) return null;
-
-        return this.traversalInOrder(this.root, data);
+        var node = this.root;
+        while (Objects.nonNull(node)) {
+            if (node.equalsTo(data)) return node.value;
+            node = node.biggerThan(data) ? node.left : node.right;
+        }
+        return null;
     }
 
     @Override
@@ -93,93 +166,180 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
         return this.root == null;
     }
 
+    public boolean isBalanced() {
+        return this.alpha > 0;
+    }
+
     /**
      * <h2>
-     * Recursive delete method
+     * Iterative delete method
      * </h2>
      *
      * <p>
-     * This method perform a recursive delete in the tree, returning an optional of the node to be deleted.
+     * This method walks down to the node to be deleted and unlinks it. A node with two children takes the value of the
+     * greatest node of its left subtree, which is the one unlinked instead.
      * </p>
      *
-     * @param node current node
      * @param data value to be deleted
-     * @return Optional<Node> node to be deleted
-     * @see java.util.Optional
+     * @return true if the value was found and deleted, false otherwise
      */
-    private Optional<Node<T>> delete(Node<T> node, T data) {
-        if (Objects.isNull(node)) return Optional.empty();
-
-        if (node.biggerThan(data)) {
-            node.addLeft(this.delete(node.left, data).orElse(null));
-            return Optional.of(node);
+    private boolean delete(T data) {
+        Node<T> parent = null;
+        Node<T> node = this.root;
+        while (Objects.nonNull(node) && !node.equalsTo(data)) {
+            parent = node;
+            node = node.biggerThan(data) ? node.left : node.right;
         }
 
-        if (node.lowerThan(data)) {
-            node.addRight(this.delete(node.right, data).orElse(null));
-            return Optional.of(node);
-        }
+        if (Objects.isNull(node)) return false;
 
-        if (Objects.isNull(node.left)) return Optional.ofNullable(node.right);
+        if (Objects.nonNull(node.left) && Objects.nonNull(node.right)) {
+            Node<T> maxParent = node;
+            Node<T> max = node.left;
+            while (Objects.nonNull(max.right)) {
+                maxParent = max;
+                max = max.right;
+            }
 
-        if (Objects.isNull(node.right)) {
-            return Optional.of(node.left);
+            node.setValue(max.value);
+            if (maxParent == node) {
+                maxParent.addLeft(max.left);
+            } else {
+                maxParent.addRight(max.left);
+            }
+            return true;
         }
 
-        node.addLeft(this.findMax(node, node.left));
-        return Optional.of(node);
+        var child = Objects.nonNull(node.left) ? node.left : node.right;
+        this.replaceChild(parent, node, child);
+        return true;
     }
 
-    private Node<T> findMax(Node<T> node, Node<T> max) {
-        if (Objects.isNull(max.right)) {
-            node.setValue(max.value);
-            return max.left;
+    private void insert(T data) {
+        int depth = 0;
+        Node<T> parent = null;
+        Node<T> node = this.root;
+        while (Objects.nonNull(node)) {
+            if (this.isBalanced()) this.pushPath(depth, node);
+            depth++;
+            parent = node;
+            node = node.biggerThan(data) ? node.left : node.right;
+        }
+
+        var child = new Node<>(data);
+        if (parent.biggerThan(data)) {
+            parent.addLeft(child);
+        } else {
+            parent.addRight(child);
+        }
+
+        if (this.isBalanced()) {
+            if (depth > Math.log(this.size) / Math.log(1 / this.alpha)) {
+                this.rebuildScapegoat(depth, child);
+            }
+            Arrays.fill(this.path, 0, depth, null);
         }
+    }
 
-        max.addRight(this.findMax(node, max.right));
-        return max;
+    private void pushPath(int depth, Node<T> node) {
+        if (depth == this.path.length) {
+            this.path = Arrays.copyOf(this.path, this.path.length * 2);
+        }
+        this.path[depth] = node;
     }
 
-    private boolean insert(Node<T> node, T data) {
-        if (node.biggerThan(data)) {
-            if (Objects.isNull(node.left)) {
-                node.addLeft(new Node<>(data));
-                return true;
+    /**
+     * Walk up from the new node until an ancestor whose child subtree has more than alpha of its size, and rebuild the
+     * subtree of this ancestor.
+     *
+     * @param depth the depth of the new node, which is the number of nodes in the path
+     * @param node  the new node
+     */
+    private void rebuildScapegoat(int depth, Node<T> node) {
+        int childSize = 1;
+        for (int i = depth - 1; i >= 0; i--) {
+            var ancestor = this.path[i];
+            int ancestorSize = childSize + 1 + countNodes(ancestor.left == node ? ancestor.right : ancestor.left);
+
+            if (childSize > this.alpha * ancestorSize) {
+                this.replaceChild(i > 0 ? this.path[i - 1] : null, ancestor, this.rebuild(ancestor, ancestorSize));
+                return;
             }
 
-            return this.insert(node.left, data);
+            childSize = ancestorSize;
+            node = ancestor;
         }
+    }
 
-        if (Objects.isNull(node.right)) {
-            node.addRight(new Node<>(data));
-            return true;
+    private Node<T> rebuild(Node<T> node, int count) {
+        if (Metrics.ENABLED) this.rebuilds++;
+        T[] sorted = TreeArguments.newArray(count);
+        var iterator = new InOrderIterator<>(node);
+        for (int i = 0; i < count; i++) {
+            sorted[i] = iterator.next();
+        }
+        return this.build(sorted, 0, count - 1);
+    }
+
+    private static <T extends Comparable<T>> int countNodes(Node<T> node) {
+        int count = 0;
+        var iterator = new InOrderIterator<>(node);
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
         }
+        return count;
+    }
 
-        return this.insert(node.right, data);
+    private void replaceChild(Node<T> parent, Node<T> oldChild, Node<T> newChild) {
+        if (Objects.isNull(parent)) {
+            this.root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.addLeft(newChild);
+        } else {
+            parent.addRight(newChild);
+        }
     }
 
     /**
      * <h2>
-     * Recursive in order traversal
+     * Number of levels of the tree
      * </h2>
+     *
      * <p>
-     * In order search: left -> root -> right
+     * The depth of the deepest node plus one, 0 if the tree is empty. Without the scapegoat mode it grows up to the size
+     * of the tree when the data is inserted in order. The tree is walked level by level, in O(n) time.
      * </p>
      *
-     * @param node current node
-     * @param data value to be searched
-     * @return T value to be searched
+     * @return the height of the tree
      */
-    private T traversalInOrder(Node<T> node, T data) {
-        if (Objects.isNull(node)) return null;
-
-        var left = this.traversalInOrder(node.left, data);
-
-        if (Objects.nonNull(left)) return left;
-
-        if (node.equalsTo(data)) return node.value;
+    public int height() {
+        if (isEmpty()) return 0;
+
+        int height = 0;
+        Deque<Node<T>> level = new ArrayDeque<>();
+        level.add(this.root);
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                var node = level.poll();
+                if (Objects.nonNull(node.left)) level.add(node.left);
+                if (Objects.nonNull(node.right)) level.add(node.right);
+            }
+        }
+        return height;
+    }
 
-        return this.traversalInOrder(node.right, data);
+    /**
+     * The max depth of the tree, see {@link #height()}, and the subtrees rebuilt by the scapegoat mode, which are only
+     * counted when {@link Metrics#ENABLED} is true.
+     */
+    @Override
+    public Map<String, Number> metrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("max depth", this.height());
+        if (this.isBalanced()) metrics.put("rebuilds", this.rebuilds);
+        return metrics;
     }
 
     @Override
@@ -191,18 +351,23 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
     }
 
     private void buildString(Node<T> root, StringBuilder sb) {
-        // build with circles to and arrows to represent the tree
-        if (Objects.isNull(root)) return;
-        sb.append(root.value).append(" ");
-        if (Objects.nonNull(root.left)) {
-            sb.append("left -> ").append(root.left.value).append(" ");
-        }
-        if (Objects.nonNull(root.right)) {
-            sb.append("right -> ").append(root.right.value).append(" ");
+        // build with circles to and arrows to represent the tree, in pre-order with an explicit stack
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        if (Objects.nonNull(root)) stack.push(root);
+
+        while (!stack.isEmpty()) {
+            var node = stack.pop();
+            sb.append(node.value).append(" ");
+            if (Objects.nonNull(node.left)) {
+                sb.append("left -> ").append(node.left.value).append(" ");
+            }
+            if (Objects.nonNull(node.right)) {
+                sb.append("right -> ").append(node.right.value).append(" ");
+                stack.push(node.right);
+            }
+            sb.append("\n");
+            if (Objects.nonNull(node.left)) stack.push(node.left);
         }
-        sb.append("\n");
-        this.buildString(root.left, sb);
-        this.buildString(root.right, sb);
     }
 
     /**
@@ -248,14 +413,135 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
      */
     @Override
     public void forEach(Consumer<T> consumer) {
-        this.inOrderTraversal(this.root, consumer);
+        Objects.requireNonNull(consumer);
+        // iterative, so a degenerated tree can't overflow the stack
+        this.iterator().forEachRemaining(consumer);
+    }
+
+    /**
+     * <h2>
+     * Build a tree from sorted elements
+     * </h2>
+     *
+     * @param sorted the elements, in ascending order
+     * @param <T>    generic type
+     * @return a balanced tree with the given elements
+     * @see #bulkLoad(Comparable[])
+     */
+    public static <T extends Comparable<T>> BinaryTree<T> fromSorted(T[] sorted) {
+        var tree = new BinaryTree<T>();
+        tree.bulkLoad(sorted);
+        return tree;
     }
 
-    private void inOrderTraversal(Node<T> root, Consumer<T> consumer) {
-        if (Objects.isNull(root)) return;
-        this.inOrderTraversal(root.left, consumer);
-        consumer.accept(root.value);
-        this.inOrderTraversal(root.right, consumer);
+    /**
+     * <h2>
+     * Replace the content of the tree with the given sorted elements
+     * </h2>
+     *
+     * <p>
+     * The middle element of the array becomes the root and each half is built the same way, so the tree is perfectly
+     * balanced and it is built in O(n) time, without comparing or rotating anything.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkLoad(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+        this.root = this.build(sorted, 0, sorted.length - 1);
+        this.size = sorted.length;
+        this.maxSize = this.size;
+    }
+
+    /**
+     * <h2>
+     * Add a sorted batch of elements to the tree
+     * </h2>
+     *
+     * <p>
+     * The elements of the tree are read in order and merged with the batch, and the tree is rebuilt from the result by
+     * {@link #bulkLoad(Comparable[])}. It costs O(n + m), against O(m log(n + m)) of adding the batch one by one.
+     * Elements of the tree come before equal elements of the batch.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    @Override
+    public void bulkMerge(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+
+        T[] merged = TreeArguments.newArray(this.size + sorted.length);
+        var current = this.iterator();
+        T next = current.hasNext() ? current.next() : null;
+        int i = 0;
+        int j = 0;
+        while (Objects.nonNull(next) || j < sorted.length) {
+            if (Objects.nonNull(next) && (j == sorted.length || next.compareTo(sorted[j]) <= 0)) {
+                merged[i++] = next;
+                next = current.hasNext() ? current.next() : null;
+            } else {
+                merged[i++] = sorted[j++];
+            }
+        }
+
+        this.bulkLoad(merged);
+    }
+
+    private Node<T> build(T[] sorted, int from, int to) {
+        if (from > to) return null;
+
+        int middle = (from + to) >>> 1;
+        var node = new Node<>(sorted[middle]);
+        node.left = this.build(sorted, from, middle - 1);
+        node.right = this.build(sorted, middle + 1, to);
+        return node;
+    }
+
+    /**
+     * <h2>
+     * In-order iterator over the tree
+     * </h2>
+     *
+     * <p>
+     * Same order as {@link #forEach(Consumer)}, but the elements are pulled one at a time. The iterator keeps only the
+     * path from the current node to the root, so the extra memory is proportional to the height of the tree.
+     * </p>
+     *
+     * @return an in-order iterator of the tree
+     */
+    public Iterator<T> iterator() {
+        return new InOrderIterator<>(this.root);
+    }
+
+    private static class InOrderIterator<T extends Comparable<T>> implements Iterator<T> {
+        private final Deque<Node<T>> path = new ArrayDeque<>();
+
+        InOrderIterator(Node<T> root) {
+            this.pushLeft(root);
+        }
+
+        private void pushLeft(Node<T> node) {
+            while (Objects.nonNull(node)) {
+                this.path.push(node);
+                node = node.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.path.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (this.path.isEmpty()) throw new NoSuchElementException();
+            var node = this.path.pop();
+            this.pushLeft(node.right);
+            return node.value;
+        }
     }
 
     private static class Node<T extends Comparable<T>> {
@@ -269,10 +555,6 @@ public class BinaryTree<T extends Comparable<T>> implements Tree<T> {
             this.right = null;
         }
 
-        public boolean lowerThan(T data) {
-            return this.value.compareTo(data) < 0;
-        }
-
         public boolean biggerThan(T data) {
             return this.value.compareTo(data) > 0;
         }
@@ -0,0 +1,615 @@
+package btree;
+
+import shared.Tree;
+import shared.TreeArguments;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * B+ tree
+ * </h2>
+ *
+ * <p>
+ * Each node keeps up to {@code order} keys in a single array, so a search reads a few contiguous arrays instead of one
+ * node per level like the binary trees: with the default order of 64, a tree of 10 million elements is only 4 or 5
+ * levels high, against more than 20 levels of an AVL tree. The elements are stored only in the leaves, which are linked
+ * in ascending order, so {@link #forEach(Consumer)} and range queries scan the leaves sequentially. The inner nodes only
+ * keep copies of keys to guide the search.
+ * </p>
+ *
+ * <p>
+ * Unlike the other trees of this project, the B+ tree doesn't keep duplicated elements: {@link #add(Comparable)} returns
+ * false if an equal element is already in the tree.
+ * </p>
+ *
+ * @param <T> generic type
+ * @see <a href="https://en.wikipedia.org/wiki/B%2B_tree">B+ tree</a>
+ */
+public class BPlusTree<T extends Comparable<T>> implements Tree<T> {
+
+    private static final int DEFAULT_ORDER = 64;
+
+    // every node but the root has at least 2 children, so 32 levels are enough for any int size
+    private static final int MAX_HEIGHT = 32;
+
+    // maximum number of keys in a node
+    private final int order;
+
+    private Node<T> root;
+    private int size;
+
+    // inner nodes visited by the last insert or delete, and the child taken in each one
+    private final Node<T>[] path = newNodes(MAX_HEIGHT);
+    private final int[] pathIndex = new int[MAX_HEIGHT];
+
+    public BPlusTree() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * @param order the maximum number of keys in a node, the inner nodes have up to {@code order + 1} children
+     * @throws IllegalArgumentException if the order is lower than 3
+     */
+    public BPlusTree(int order) {
+        if (order < 3) throw new IllegalArgumentException("Order must be at least 3");
+        this.order = order;
+    }
+
+    @Override
+    public boolean add(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        if (isEmpty()) {
+            this.root = this.newLeaf();
+            this.root.keys[0] = data;
+            this.root.count = 1;
+            this.size = 1;
+            return true;
+        }
+
+        int depth = this.descend(data);
+        Node<T> leaf = depth == 0 ? this.root : this.path[depth - 1].children[this.pathIndex[depth - 1]];
+
+        int position = leaf.search(data);
+        if (position >= 0) {
+            this.clearPath(depth);
+            return false;
+        }
+
+        leaf.insertKey(-position - 1, data);
+        this.size++;
+        this.splitUp(leaf, depth);
+        this.clearPath(depth);
+        return true;
+    }
+
+    @Override
+    public boolean remove(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        if (isEmpty()) return false;
+
+        int depth = this.descend(data);
+        Node<T> leaf = depth == 0 ? this.root : this.path[depth - 1].children[this.pathIndex[depth - 1]];
+
+        int position = leaf.search(data);
+        if (position < 0) {
+            this.clearPath(depth);
+            return false;
+        }
+
+        leaf.removeKey(position);
+        this.size--;
+        this.mergeUp(leaf, depth);
+        this.clearPath(depth);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(T data) {
+        return Objects.nonNull(this.traversal(data));
+    }
+
+    @Override
+    public void clear() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * <h2>
+     * Search the given data in the tree
+     * </h2>
+     *
+     * <p>
+     * Binary search in the keys of each node, from the root down to a leaf. O(log n) comparisons, but only one node per
+     * level of a very short tree.
+     * </p>
+     *
+     * @param data The data to be searched
+     * @return the element of the tree equal to the given one, or null
+     */
+    @Override
+    public T traversal(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        if (isEmpty()) return null;
+
+        Node<T> leaf = this.findLeaf(data);
+        int position = leaf.search(data);
+        return position >= 0 ? leaf.key(position) : null;
+    }
+
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        for (Node<T> leaf = this.firstLeaf(); Objects.nonNull(leaf); leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                consumer.accept(leaf.key(i));
+            }
+        }
+    }
+
+    /**
+     * <h2>
+     * Range query
+     * </h2>
+     *
+     * <p>
+     * Searches the leaf of {@code from} and scans the linked leaves until the first element greater than {@code to}, in
+     * O(log n + k), where k is the number of elements in the range.
+     * </p>
+     *
+     * @param from     the lower bound, inclusive
+     * @param to       the upper bound, inclusive
+     * @param consumer the function applied to each element in the range
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    @Override
+    public void range(T from, T to, Consumer<T> consumer) {
+        TreeArguments.requireRange(from, to);
+
+        if (isEmpty()) return;
+
+        Node<T> leaf = this.findLeaf(from);
+        int position = leaf.search(from);
+        int i = position >= 0 ? position : -position - 1;
+        for (; Objects.nonNull(leaf); leaf = leaf.next, i = 0) {
+            for (; i < leaf.count; i++) {
+                T value = leaf.key(i);
+                if (value.compareTo(to) > 0) return;
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * <h2>
+     * In-order iterator over the tree
+     * </h2>
+     *
+     * @return an iterator that scans the leaves in ascending order
+     */
+    public Iterator<T> iterator() {
+        return new LeafIterator<>(this.firstLeaf());
+    }
+
+    /**
+     * @return the number of levels of the tree, 0 if it is empty
+     */
+    public int height() {
+        int height = 0;
+        for (Node<T> node = this.root; Objects.nonNull(node); node = node.isLeaf() ? null : node.children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * <h2>
+     * Replace the content of the tree with the given sorted elements
+     * </h2>
+     *
+     * <p>
+     * The leaves are filled directly from the array, with the elements spread evenly between them, and each level of
+     * inner nodes is built on top of the level below, in O(n) without any split.
+     * </p>
+     *
+     * @param sorted the elements, in strictly ascending order
+     * @throws IllegalArgumentException if the elements are not in strictly ascending order or any of them is null
+     */
+    @Override
+    public void bulkLoad(T[] sorted) {
+        TreeArguments.requireSorted(sorted, true);
+
+        this.clear();
+        if (sorted.length == 0) return;
+
+        int leaves = ceilDiv(sorted.length, this.order);
+        Node<T>[] level = newNodes(leaves);
+        Object[] lowest = new Object[leaves];
+        Node<T> previous = null;
+        for (int i = 0, from = 0; i < leaves; i++) {
+            int to = (int) ((long) sorted.length * (i + 1) / leaves);
+            var leaf = this.newLeaf();
+            System.arraycopy(sorted, from, leaf.keys, 0, to - from);
+            leaf.count = to - from;
+            if (Objects.nonNull(previous)) previous.next = leaf;
+            previous = leaf;
+            level[i] = leaf;
+            lowest[i] = sorted[from];
+            from = to;
+        }
+
+        while (level.length > 1) {
+            int parents = ceilDiv(level.length, this.order + 1);
+            Node<T>[] upper = newNodes(parents);
+            Object[] upperLowest = new Object[parents];
+            for (int i = 0, from = 0; i < parents; i++) {
+                int to = (int) ((long) level.length * (i + 1) / parents);
+                var node = this.newInner();
+                System.arraycopy(level, from, node.children, 0, to - from);
+                // the separator of each child is the lowest element of its subtree
+                System.arraycopy(lowest, from + 1, node.keys, 0, to - from - 1);
+                node.count = to - from - 1;
+                upper[i] = node;
+                upperLowest[i] = lowest[from];
+                from = to;
+            }
+            level = upper;
+            lowest = upperLowest;
+        }
+
+        this.root = level[0];
+        this.size = sorted.length;
+    }
+
+    @Override
+    public String toString() {
+        // one line per level, with the keys of each node between brackets
+        StringBuilder sb = new StringBuilder();
+        for (Node<T> first = this.root; Objects.nonNull(first); first = first.isLeaf() ? null : first.children[0]) {
+            this.appendLevel(first, sb);
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    private void appendLevel(Node<T> node, StringBuilder sb) {
+        if (node.isLeaf()) {
+            for (Node<T> leaf = node; Objects.nonNull(leaf); leaf = leaf.next) {
+                sb.append(Arrays.toString(Arrays.copyOf(leaf.keys, leaf.count))).append(" ");
+            }
+            return;
+        }
+
+        // the inner nodes are not linked, so walk the level from the root
+        this.appendInner(this.root, this.depthOf(node), sb);
+    }
+
+    private void appendInner(Node<T> node, int depth, StringBuilder sb) {
+        if (depth == 0) {
+            sb.append(Arrays.toString(Arrays.copyOf(node.keys, node.count))).append(" ");
+            return;
+        }
+        for (int i = 0; i <= node.count; i++) {
+            this.appendInner(node.children[i], depth - 1, sb);
+        }
+    }
+
+    private int depthOf(Node<T> first) {
+        int depth = 0;
+        for (Node<T> node = this.root; node != first; node = node.children[0]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Walk down from the root to the leaf where the data is or would be, keeping the inner nodes in the path.
+     *
+     * @return the number of inner nodes in the path
+     */
+    private int descend(T data) {
+        int depth = 0;
+        Node<T> node = this.root;
+        while (!node.isLeaf()) {
+            int child = node.childIndex(data);
+            this.path[depth] = node;
+            this.pathIndex[depth] = child;
+            depth++;
+            node = node.children[child];
+        }
+        return depth;
+    }
+
+    private Node<T> findLeaf(T data) {
+        Node<T> node = this.root;
+        while (!node.isLeaf()) {
+            node = node.children[node.childIndex(data)];
+        }
+        return node;
+    }
+
+    private Node<T> firstLeaf() {
+        Node<T> node = this.root;
+        while (Objects.nonNull(node) && !node.isLeaf()) {
+            node = node.children[0];
+        }
+        return node;
+    }
+
+    /**
+     * Split the overflowed nodes from the given one up to the root. The right half of a leaf keeps all its keys and a
+     * copy of its first key goes up; the middle key of an inner node moves up.
+     */
+    private void splitUp(Node<T> node, int depth) {
+        while (node.count > this.order) {
+            int middle = node.count / 2;
+            Node<T> right;
+            T separator;
+            if (node.isLeaf()) {
+                right = this.newLeaf();
+                right.count = node.count - middle;
+                System.arraycopy(node.keys, middle, right.keys, 0, right.count);
+                right.next = node.next;
+                node.next = right;
+                separator = right.key(0);
+            } else {
+                right = this.newInner();
+                right.count = node.count - middle - 1;
+                System.arraycopy(node.keys, middle + 1, right.keys, 0, right.count);
+                System.arraycopy(node.children, middle + 1, right.children, 0, right.count + 1);
+                Arrays.fill(node.children, middle + 1, node.count + 1, null);
+                separator = node.key(middle);
+            }
+            Arrays.fill(node.keys, middle, node.count, null);
+            node.count = middle;
+
+            if (depth == 0) {
+                var newRoot = this.newInner();
+                newRoot.keys[0] = separator;
+                newRoot.children[0] = node;
+                newRoot.children[1] = right;
+                newRoot.count = 1;
+                this.root = newRoot;
+                return;
+            }
+
+            depth--;
+            Node<T> parent = this.path[depth];
+            parent.insertChild(this.pathIndex[depth], separator, right);
+            node = parent;
+        }
+    }
+
+    /**
+     * Fix the underflowed nodes from the given one up to the root, borrowing a key from a sibling when it has keys to
+     * spare, or merging with it otherwise.
+     */
+    private void mergeUp(Node<T> node, int depth) {
+        while (depth > 0 && node.count < this.minimumKeys(node)) {
+            depth--;
+            Node<T> parent = this.path[depth];
+            int index = this.pathIndex[depth];
+            Node<T> left = index > 0 ? parent.children[index - 1] : null;
+            Node<T> right = index < parent.count ? parent.children[index + 1] : null;
+
+            if (Objects.nonNull(left) && left.count > this.minimumKeys(left)) {
+                borrowFromLeft(parent, index, left, node);
+            } else if (Objects.nonNull(right) && right.count > this.minimumKeys(right)) {
+                borrowFromRight(parent, index, node, right);
+            } else if (Objects.nonNull(left)) {
+                merge(parent, index - 1, left, node);
+            } else {
+                merge(parent, index, node, right);
+            }
+            node = parent;
+        }
+
+        if (this.root.count == 0) {
+            this.root = this.root.isLeaf() ? null : this.root.children[0];
+        }
+    }
+
+    private int minimumKeys(Node<T> node) {
+        return node.isLeaf() ? (this.order + 1) / 2 : this.order / 2;
+    }
+
+    private static <T extends Comparable<T>> void borrowFromLeft(Node<T> parent, int index, Node<T> left, Node<T> node) {
+        if (node.isLeaf()) {
+            node.insertKey(0, left.key(left.count - 1));
+            left.removeKey(left.count - 1);
+            parent.keys[index - 1] = node.keys[0];
+            return;
+        }
+
+        // rotate through the parent: its separator goes down and the last key of the left sibling goes up
+        System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+        System.arraycopy(node.children, 0, node.children, 1, node.count + 1);
+        node.keys[0] = parent.keys[index - 1];
+        node.children[0] = left.children[left.count];
+        node.count++;
+        parent.keys[index - 1] = left.keys[left.count - 1];
+        left.keys[left.count - 1] = null;
+        left.children[left.count] = null;
+        left.count--;
+    }
+
+    private static <T extends Comparable<T>> void borrowFromRight(Node<T> parent, int index, Node<T> node, Node<T> right) {
+        if (node.isLeaf()) {
+            node.insertKey(node.count, right.key(0));
+            right.removeKey(0);
+            parent.keys[index] = right.keys[0];
+            return;
+        }
+
+        node.keys[node.count] = parent.keys[index];
+        node.children[node.count + 1] = right.children[0];
+        node.count++;
+        parent.keys[index] = right.keys[0];
+        System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+        System.arraycopy(right.children, 1, right.children, 0, right.count);
+        right.keys[right.count - 1] = null;
+        right.children[right.count] = null;
+        right.count--;
+    }
+
+    /**
+     * Move the keys of the right node into the left one and remove the separator between them from the parent.
+     */
+    private static <T extends Comparable<T>> void merge(Node<T> parent, int separator, Node<T> left, Node<T> right) {
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            left.next = right.next;
+        } else {
+            left.keys[left.count] = parent.keys[separator];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        parent.removeChild(separator);
+    }
+
+    private Node<T> newLeaf() {
+        // one extra slot, so a node can overflow before being split
+        return new Node<>(new Object[this.order + 1], null);
+    }
+
+    private Node<T> newInner() {
+        return new Node<>(new Object[this.order + 1], BPlusTree.<T>newNodes(this.order + 2));
+    }
+
+    // don't keep references to nodes that may leave the tree
+    private void clearPath(int depth) {
+        Arrays.fill(this.path, 0, depth, null);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> Node<T>[] newNodes(int length) {
+        return new Node[length];
+    }
+
+    private static int ceilDiv(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private static class LeafIterator<T extends Comparable<T>> implements Iterator<T> {
+        private Node<T> leaf;
+        private int index;
+
+        LeafIterator(Node<T> first) {
+            this.leaf = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return Objects.nonNull(this.leaf);
+        }
+
+        @Override
+        public T next() {
+            if (Objects.isNull(this.leaf)) throw new NoSuchElementException();
+            T value = this.leaf.key(this.index++);
+            if (this.index == this.leaf.count) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A node of the tree. Leaves have no children and are linked to the next leaf; inner nodes have {@code count + 1}
+     * children, where every key of {@code children[i]} is lower than {@code keys[i]} and every key of
+     * {@code children[i + 1]} is greater or equal to it.
+     */
+    private static class Node<T extends Comparable<T>> {
+        private final Object[] keys;
+        private final Node<T>[] children;
+        private Node<T> next;
+        private int count;
+
+        Node(Object[] keys, Node<T>[] children) {
+            this.keys = keys;
+            this.children = children;
+        }
+
+        boolean isLeaf() {
+            return Objects.isNull(this.children);
+        }
+
+        @SuppressWarnings("unchecked")
+        T key(int index) {
+            return (T) this.keys[index];
+        }
+
+        /**
+         * Binary search of the keys.
+         *
+         * @return the index of the key equal to the data, or {@code -(insertion point) - 1} if there's none
+         */
+        int search(T data) {
+            int low = 0;
+            int high = this.count - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int comparison = this.key(middle).compareTo(data);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        // the child to follow for the data: the number of keys lower or equal to it
+        int childIndex(T data) {
+            int position = this.search(data);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        void insertKey(int index, T data) {
+            System.arraycopy(this.keys, index, this.keys, index + 1, this.count - index);
+            this.keys[index] = data;
+            this.count++;
+        }
+
+        void removeKey(int index) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, this.count - index - 1);
+            this.keys[--this.count] = null;
+        }
+
+        // insert the separator at the given index and the new child right after it
+        void insertChild(int index, T separator, Node<T> child) {
+            System.arraycopy(this.children, index + 1, this.children, index + 2, this.count - index);
+            this.children[index + 1] = child;
+            this.insertKey(index, separator);
+        }
+
+        // remove the separator at the given index and the child right after it
+        void removeChild(int index) {
+            System.arraycopy(this.children, index + 2, this.children, index + 1, this.count - index - 1);
+            this.children[this.count] = null;
+            this.removeKey(index);
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package columnar;
+
+import shared.BankAccount;
+import shared.Cpf;
+import shared.DataStructure;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Columnar store of bank accounts
+ * </h2>
+ *
+ * <p>
+ * Each {@link BankAccount} record costs two boxed {@code Long}s, a {@link Cpf} with a {@code String} and the node of the
+ * structure that holds it. This store keeps the accounts as four parallel primitive arrays (agency, account, balance in
+ * cents and owner CPF), so an account costs 32 bytes and scanning a column reads contiguous memory. A row is the index of
+ * an account in these arrays.
+ * </p>
+ *
+ * <p>
+ * The rows can be sorted by agency/account or by owner CPF. Lookups use a binary search when the rows are in the
+ * matching order, and {@link #groupByOwner(OwnerGroupConsumer)} aggregates the balances of each owner in a single scan.
+ * {@link #add(BankAccount)} and {@link #forEach(Consumer)} convert from and to records, so the store can be used as any
+ * other {@link DataStructure}, but the columns can also be filled directly by {@link #append(long, long, long, long)},
+ * which has the shape of a {@code MappedAccountReader.AccountSink}.
+ * </p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/AoS_and_SoA">Array of structures vs structure of arrays</a>
+ */
+public class ColumnarAccountStore implements DataStructure<BankAccount> {
+    private static final int DEFAULT_SIZE = 16;
+
+    // ranges smaller than this are sorted by insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private long[] agency;
+    private long[] account;
+    private long[] balanceCents;
+    private long[] ownerCpf;
+
+    private int size;
+
+    private Order order = Order.NONE;
+
+    /**
+     * Order of the rows.
+     */
+    public enum Order {
+        NONE,
+        BY_ACCOUNT,
+        BY_OWNER
+    }
+
+    /**
+     * Receives the rows of each owner, see {@link #groupByOwner(OwnerGroupConsumer)}.
+     */
+    @FunctionalInterface
+    public interface OwnerGroupConsumer {
+        void accept(long ownerCpf, int fromRow, int toRow, long totalBalanceCents);
+    }
+
+    public ColumnarAccountStore(int capacity) {
+        int length = Math.max(capacity, 1);
+        this.agency = new long[length];
+        this.account = new long[length];
+        this.balanceCents = new long[length];
+        this.ownerCpf = new long[length];
+    }
+
+    public ColumnarAccountStore() {
+        this(DEFAULT_SIZE);
+    }
+
+    @Override
+    public boolean add(BankAccount data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        this.append(data.agency(), data.account(), Math.round(data.balance() * 100), data.ownerCpf().number());
+        return true;
+    }
+
+    /**
+     * Append an account to the end of the columns.
+     *
+     * @param agency       the agency
+     * @param account      the account
+     * @param balanceCents the balance, in cents
+     * @param ownerCpf     the CPF of the owner
+     */
+    public void append(long agency, long account, long balanceCents, long ownerCpf) {
+        if (this.size == this.agency.length) this.grow();
+
+        this.agency[this.size] = agency;
+        this.account[this.size] = account;
+        this.balanceCents[this.size] = balanceCents;
+        this.ownerCpf[this.size] = ownerCpf;
+        this.size++;
+        this.order = Order.NONE;
+    }
+
+    @Override
+    public boolean remove(BankAccount data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        int row = this.findRow(data.agency(), data.account());
+        if (row < 0) return false;
+
+        // shift the following rows, so the order of the rows is kept
+        int moved = this.size - row - 1;
+        System.arraycopy(this.agency, row + 1, this.agency, row, moved);
+        System.arraycopy(this.account, row + 1, this.account, row, moved);
+        System.arraycopy(this.balanceCents, row + 1, this.balanceCents, row, moved);
+        System.arraycopy(this.ownerCpf, row + 1, this.ownerCpf, row, moved);
+        this.size--;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(BankAccount data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+        return this.findRow(data.agency(), data.account()) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        this.size = 0;
+        this.order = Order.NONE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Iterate the accounts in the current order of the rows. Each row is converted to a new {@link BankAccount}.
+     *
+     * @param consumer function to be applied
+     */
+    @Override
+    public void forEach(Consumer<BankAccount> consumer) {
+        Objects.requireNonNull(consumer);
+        for (int row = 0; row < this.size; row++) {
+            consumer.accept(this.get(row));
+        }
+    }
+
+    public BankAccount get(int row) {
+        this.checkRow(row);
+        return new BankAccount(this.agency[row], this.account[row], this.balanceCents[row] / 100.0, new Cpf(this.ownerCpf[row]));
+    }
+
+    public long agency(int row) {
+        this.checkRow(row);
+        return this.agency[row];
+    }
+
+    public long account(int row) {
+        this.checkRow(row);
+        return this.account[row];
+    }
+
+    public long balanceCents(int row) {
+        this.checkRow(row);
+        return this.balanceCents[row];
+    }
+
+    public long ownerCpf(int row) {
+        this.checkRow(row);
+        return this.ownerCpf[row];
+    }
+
+    public Order order() {
+        return this.order;
+    }
+
+    /**
+     * <h2>
+     * Find the row of the given account
+     * </h2>
+     *
+     * <p>
+     * Binary search when the rows are sorted by account, linear scan of the two key columns otherwise.
+     * </p>
+     *
+     * @param agency  the agency
+     * @param account the account
+     * @return the row of the account, or -1 if it is not in the store
+     */
+    public int findRow(long agency, long account) {
+        if (this.order == Order.BY_ACCOUNT) {
+            int low = 0;
+            int high = this.size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = this.compareAccount(mid, agency, account);
+                if (cmp < 0) low = mid + 1;
+                else if (cmp > 0) high = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        for (int row = 0; row < this.size; row++) {
+            if (this.agency[row] == agency && this.account[row] == account) return row;
+        }
+        return -1;
+    }
+
+    /**
+     * <h2>
+     * First row of the given owner
+     * </h2>
+     *
+     * <p>
+     * Sorts the rows by owner if they are not yet, then finds the first row with the given CPF by binary search. The
+     * accounts of the owner are the following rows while {@link #ownerCpf(int)} is the same.
+     * </p>
+     *
+     * @param ownerCpf the CPF of the owner
+     * @return the first row of the owner, or the row where it would be, which may be {@link #size()}
+     */
+    public int firstRowOfOwner(long ownerCpf) {
+        this.sortByOwner();
+
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.ownerCpf[mid] < ownerCpf) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * <h2>
+     * Aggregate the balance of each owner
+     * </h2>
+     *
+     * <p>
+     * Sorts the rows by owner if they are not yet, then scans the owner and balance columns once, calling the consumer
+     * with the range of rows and the total balance of each owner, in ascending CPF order.
+     * </p>
+     *
+     * @param consumer the consumer of the groups
+     */
+    public void groupByOwner(OwnerGroupConsumer consumer) {
+        Objects.requireNonNull(consumer);
+        this.sortByOwner();
+
+        int from = 0;
+        while (from < this.size) {
+            long owner = this.ownerCpf[from];
+            long total = 0;
+            int to = from;
+            while (to < this.size && this.ownerCpf[to] == owner) {
+                total += this.balanceCents[to++];
+            }
+            consumer.accept(owner, from, to, total);
+            from = to;
+        }
+    }
+
+    /**
+     * Sort the rows by agency and account.
+     */
+    public void sortByAccount() {
+        if (this.order == Order.BY_ACCOUNT) return;
+        this.sort(Order.BY_ACCOUNT, 0, this.size - 1);
+        this.order = Order.BY_ACCOUNT;
+    }
+
+    /**
+     * Sort the rows by owner CPF, then by agency and account.
+     */
+    public void sortByOwner() {
+        if (this.order == Order.BY_OWNER) return;
+        this.sort(Order.BY_OWNER, 0, this.size - 1);
+        this.order = Order.BY_OWNER;
+    }
+
+    /**
+     * Quick sort of the rows with a median of three pivot, moving the four columns together. Small ranges are left to
+     * insertion sort, and the recursion goes into the smaller partition to keep the stack at O(log n).
+     */
+    private void sort(Order by, int left, int right) {
+        while (right - left >= INSERTION_SORT_THRESHOLD) {
+            int mid = (left + right) >>> 1;
+            if (this.compare(by, mid, left) < 0) this.swap(mid, left);
+            if (this.compare(by, right, left) < 0) this.swap(right, left);
+            if (this.compare(by, right, mid) < 0) this.swap(right, mid);
+
+            // keep the pivot at right - 1, out of the way of the partition
+            this.swap(mid, right - 1);
+            int pivot = right - 1;
+            int i = left;
+            int j = right - 1;
+            while (true) {
+                while (this.compare(by, ++i, pivot) < 0) ;
+                while (this.compare(by, --j, pivot) > 0) ;
+                if (i >= j) break;
+                this.swap(i, j);
+            }
+            this.swap(i, pivot);
+
+            if (i - left < right - i) {
+                this.sort(by, left, i - 1);
+                left = i + 1;
+            } else {
+                this.sort(by, i + 1, right);
+                right = i - 1;
+            }
+        }
+
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && this.compare(by, j, j - 1) < 0; j--) {
+                this.swap(j, j - 1);
+            }
+        }
+    }
+
+    private int compare(Order by, int i, int j) {
+        if (by == Order.BY_OWNER) {
+            int cmp = Long.compare(this.ownerCpf[i], this.ownerCpf[j]);
+            if (cmp != 0) return cmp;
+        }
+        return this.compareAccount(i, this.agency[j], this.account[j]);
+    }
+
+    private int compareAccount(int row, long agency, long account) {
+        int cmp = Long.compare(this.agency[row], agency);
+        return cmp != 0 ? cmp : Long.compare(this.account[row], account);
+    }
+
+    private void swap(int i, int j) {
+        swap(this.agency, i, j);
+        swap(this.account, i, j);
+        swap(this.balanceCents, i, j);
+        swap(this.ownerCpf, i, j);
+    }
+
+    private static void swap(long[] column, int i, int j) {
+        long temp = column[i];
+        column[i] = column[j];
+        column[j] = temp;
+    }
+
+    private void grow() {
+        int length = this.agency.length * 2;
+        this.agency = Arrays.copyOf(this.agency, length);
+        this.account = Arrays.copyOf(this.account, length);
+        this.balanceCents = Arrays.copyOf(this.balanceCents, length);
+        this.ownerCpf = Arrays.copyOf(this.ownerCpf, length);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= this.size) throw new IllegalArgumentException("Row out of bounds");
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "columnar store: " + size +
+                " accounts, order: " + order +
+                '}';
+    }
+}
@@ -0,0 +1,326 @@
+package generator;
+
+import shared.AccountFileOptions;
+import shared.FileResourceUtils;
+import shared.ReportWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <h2>
+ * Generator of large account and CPF files
+ * </h2>
+ *
+ * <p>
+ * Writes an account file in the format of the files of the project ({@code agency;account;balance;cpf}) and its CPF
+ * file, following a {@link DatasetSpec}. Every value of a line is computed from the seed and the position of the line,
+ * without any state shared between the lines, so the files are split in chunks of lines that are formatted in parallel
+ * and written to a {@link FileChannel} in order. Only a few chunks per thread are kept in memory at a time, so the
+ * memory used doesn't depend on the size of the file.
+ * </p>
+ *
+ * <ul>
+ *     <li>The keys of the sorted accounts are even numbers that grow with the line, and the keys of the others are odd
+ *     numbers in a random order, so the keys never collide and the sorted accounts stay in order among the others. The
+ *     keys are spread over up to 1000 agencies.</li>
+ *     <li>The owners follow a Zipf distribution over the CPFs (approximated by the inverse of its continuous CDF).</li>
+ *     <li>The CPFs are distinct 11 digit numbers in a random order, from a permutation of the owners.</li>
+ *     <li>A duplicate line repeats the key of one of the previous 1024 lines.</li>
+ * </ul>
+ *
+ * <p>
+ * Usage: {@code java generator.DatasetGenerator CONTA_1M [CONTA_10M ...] [--seed=42] [--cpfs=250000]
+ * [--duplicates=0.01] [--skew=1.1] [--sortedness=0.5] [--threads=8]}. The files are written to the resources of the
+ * project, where the reports and the benchmarks read them from.
+ * </p>
+ */
+public class DatasetGenerator {
+    private static final int CHUNK_LINES = 1 << 16;
+    private static final int CHUNK_BUFFER_SIZE = 64 * 1024;
+
+    // chunks being formatted or waiting to be written, for each thread
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    // longest account line: 5 + 8 + 9 + 11 digits, the dot of the balance, 3 separators and the line break
+    private static final int ACCOUNT_LINE_LENGTH = 38;
+    private static final int CPF_LINE_LENGTH = 12;
+
+    private static final long FIRST_AGENCY = 10_000;
+    private static final long MAX_AGENCIES = 1_000;
+    private static final int DUPLICATE_WINDOW = 1024;
+    private static final long MAX_BALANCE_CENTS = 100_000_000;
+
+    // the CPFs are permuted over the next power of two of their count
+    private static final int CPF_BITS = Long.SIZE - Long.numberOfLeadingZeros(DatasetSpec.MAX_CPFS - 1);
+
+    // odd multipliers of the permutation rounds, each one is a bijection modulo a power of two
+    private static final long[] PERMUTATION_MULTIPLIERS = {0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L, 0x94D049BB133111EBL};
+
+    // independent random streams of each line
+    private static final long SORTED_STREAM = 1;
+    private static final long DUPLICATE_STREAM = 2;
+    private static final long DUPLICATE_OF_STREAM = 3;
+    private static final long OWNER_STREAM = 4;
+    private static final long BALANCE_STREAM = 5;
+    private static final long CPF_STREAM = 6;
+    private static final long PERMUTATION_STREAM = 7;
+
+    private final DatasetSpec spec;
+    private final Permutation keyPermutation;
+    private final Permutation cpfPermutation;
+    private final long accountsPerAgency;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(spec.rows() - 1);
+        this.keyPermutation = new Permutation(bits, spec.seed(), PERMUTATION_STREAM);
+        this.cpfPermutation = new Permutation(CPF_BITS, spec.seed(), CPF_STREAM);
+        // the keys go up to 2^(bits + 1)
+        this.accountsPerAgency = Math.max(1, ((1L << bits) * 2 + MAX_AGENCIES - 1) / MAX_AGENCIES);
+    }
+
+    public static void main(String[] args) {
+        var files = new ArrayList<AccountFileOptions>();
+        Long cpfs = null;
+        double duplicates = 0;
+        double skew = 0;
+        double sortedness = 0;
+        long seed = DatasetSpec.DEFAULT_SEED;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (var arg : args) {
+            if (!arg.startsWith("--")) {
+                files.add(AccountFileOptions.valueOf(arg));
+                continue;
+            }
+
+            var option = arg.substring(2).split("=", 2);
+            if (option.length != 2) throw new IllegalArgumentException("Invalid option: " + arg);
+            switch (option[0]) {
+                case "cpfs" -> cpfs = Long.parseLong(option[1]);
+                case "duplicates" -> duplicates = Double.parseDouble(option[1]);
+                case "skew" -> skew = Double.parseDouble(option[1]);
+                case "sortedness" -> sortedness = Double.parseDouble(option[1]);
+                case "seed" -> seed = Long.parseLong(option[1]);
+                case "threads" -> threads = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+        }
+        if (files.isEmpty()) throw new IllegalArgumentException("No file to generate, expected one of: " + AccountFileOptions.CONTA_1M + ", " + AccountFileOptions.CONTA_10M + ", " + AccountFileOptions.CONTA_100M);
+
+        for (var file : files) {
+            var spec = DatasetSpec.of(file)
+                    .withDuplicateRate(duplicates)
+                    .withSkew(skew)
+                    .withSortedness(sortedness)
+                    .withSeed(seed);
+            if (cpfs != null) spec = spec.withCpfCardinality(cpfs);
+
+            long start = System.nanoTime();
+            new DatasetGenerator(spec).generate(file, threads);
+            System.out.printf("%s and %s: %d rows in %.1f s%n", file.getFileName(), file.getCpfFileName(), spec.rows(), (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    /**
+     * <h2>
+     * Generate the account file and the CPF file of the given option
+     * </h2>
+     *
+     * @param option  a generated file, the files that come with the project are never overwritten
+     * @param threads the number of threads that format the lines
+     */
+    public void generate(AccountFileOptions option, int threads) {
+        if (!option.isGenerated()) throw new IllegalArgumentException("File is not generated: " + option.getFileName());
+
+        this.generate(FileResourceUtils.getPath(option.getFileName()), FileResourceUtils.getPath(option.getCpfFileName()), threads);
+    }
+
+    /**
+     * Generate the account file and the CPF file at the given paths.
+     *
+     * @param accountFile the path of the account file
+     * @param cpfFile     the path of the CPF file
+     * @param threads     the number of threads that format the lines
+     * @throws UncheckedIOException if a file can't be written
+     */
+    public void generate(Path accountFile, Path cpfFile, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be positive: " + threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            writeLines(accountFile, this.spec.rows(), ACCOUNT_LINE_LENGTH, this::writeAccount, executor, threads * CHUNKS_PER_THREAD);
+            writeLines(cpfFile, this.spec.cpfCardinality(), CPF_LINE_LENGTH, this::writeCpf, executor, threads * CHUNKS_PER_THREAD);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void writeAccount(ReportWriter writer, long line) {
+        long key = this.accountKey(line);
+        writer.writeLong(FIRST_AGENCY + key / this.accountsPerAgency).write(';')
+                .writeLong(key % this.accountsPerAgency, 8).write(';')
+                .writeDouble(Math.floorMod(mix(this.spec.seed(), line, BALANCE_STREAM), MAX_BALANCE_CENTS) / 100.0).write(';')
+                .writeLong(this.cpf(this.original(this.owner(line))), 11).write('\n');
+    }
+
+    private void writeCpf(ReportWriter writer, long line) {
+        writer.writeLong(this.cpf(this.original(line)), 11).write('\n');
+    }
+
+    private long accountKey(long line) {
+        line = this.original(line);
+
+        boolean sorted = uniform(this.spec.seed(), line, SORTED_STREAM) < this.spec.sortedness();
+        return sorted ? 2 * line : 2 * this.keyPermutation.apply(line) + 1;
+    }
+
+    private boolean isDuplicate(long line) {
+        return line > 0 && uniform(this.spec.seed(), line, DUPLICATE_STREAM) < this.spec.duplicateRate();
+    }
+
+    /**
+     * The first line with the key of the given line: a duplicate repeats the key of one of the previous lines, which may
+     * be a duplicate too. The owners of the accounts are lines of the CPF file, resolved the same way, so every owner is
+     * in the CPF file.
+     */
+    private long original(long line) {
+        while (this.isDuplicate(line)) {
+            line -= 1 + Math.floorMod(mix(this.spec.seed(), line, DUPLICATE_OF_STREAM), Math.min(line, DUPLICATE_WINDOW));
+        }
+        return line;
+    }
+
+    /**
+     * Index of the owner of the account of the given line, from a Zipf distribution with the exponent of the skew.
+     */
+    private long owner(long line) {
+        long owners = this.spec.cpfCardinality();
+        double u = uniform(this.spec.seed(), line, OWNER_STREAM);
+        double skew = this.spec.skew();
+        if (skew == 0) return Math.min((long) (u * owners), owners - 1);
+
+        // inverse of the CDF of the density x^-skew between 1 and the number of owners
+        double rank = skew == 1
+                ? Math.pow(owners, u)
+                : Math.pow((Math.pow(owners, 1 - skew) - 1) * u + 1, 1 / (1 - skew));
+        return Math.min(Math.max((long) rank - 1, 0), owners - 1);
+    }
+
+    /**
+     * CPF of the given owner. The permutation is over the next power of two of the CPFs, so it is applied again until
+     * the result is a valid CPF (cycle walking, about 1.4 times on average): it stays a bijection of the CPFs, so
+     * distinct owners have distinct CPFs.
+     */
+    private long cpf(long owner) {
+        long cpf = owner;
+        do {
+            cpf = this.cpfPermutation.apply(cpf);
+        } while (cpf >= DatasetSpec.MAX_CPFS);
+        return cpf;
+    }
+
+    /**
+     * Write the lines to the file in chunks that are formatted by the executor. At most the given number of chunks is
+     * pending at a time, and they are written in the order of the lines.
+     */
+    private static void writeLines(Path path, long lines, int lineLength, LineWriter lineWriter, ExecutorService executor, int maxPending) {
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while creating the directory of: " + path, e);
+        }
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var output = Channels.newOutputStream(channel);
+            Deque<CompletableFuture<ByteArrayOutputStream>> pending = new ArrayDeque<>();
+            for (long start = 0; start < lines; start += CHUNK_LINES) {
+                final long from = start;
+                final long to = Math.min(start + CHUNK_LINES, lines);
+                pending.add(CompletableFuture.supplyAsync(() -> formatChunk(from, to, lineLength, lineWriter), executor));
+
+                if (pending.size() >= maxPending) pending.poll().join().writeTo(output);
+            }
+            while (!pending.isEmpty()) {
+                pending.poll().join().writeTo(output);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing file: " + path, e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private static ByteArrayOutputStream formatChunk(long from, long to, int lineLength, LineWriter lineWriter) {
+        var bytes = new ByteArrayOutputStream((int) (to - from) * lineLength);
+        try (var writer = new ReportWriter(Channels.newChannel(bytes), CHUNK_BUFFER_SIZE)) {
+            for (long line = from; line < to; line++) {
+                lineWriter.write(writer, line);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * SplitMix64 of the seed, the line and the stream: the same inputs always give the same number, and any change of
+     * them gives an unrelated one.
+     */
+    private static long mix(long seed, long line, long stream) {
+        long z = seed + line * 0x9E3779B97F4A7C15L + stream * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // uniform double between 0 (inclusive) and 1 (exclusive)
+    private static double uniform(long seed, long line, long stream) {
+        return (mix(seed, line, stream) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Bijection of the numbers lower than a power of two: rounds of a multiplication by an odd number plus a key and a
+     * xor with the upper half of the bits, each of them invertible modulo the power of two.
+     */
+    private static final class Permutation {
+        private final long[] keys = new long[PERMUTATION_MULTIPLIERS.length];
+        private final long mask;
+        private final int shift;
+
+        Permutation(int bits, long seed, long stream) {
+            for (int round = 0; round < this.keys.length; round++) {
+                this.keys[round] = mix(seed, round, stream);
+            }
+            this.mask = (1L << bits) - 1;
+            this.shift = Math.max(1, bits / 2);
+        }
+
+        long apply(long index) {
+            long x = index;
+            for (int round = 0; round < PERMUTATION_MULTIPLIERS.length; round++) {
+                x = (x * PERMUTATION_MULTIPLIERS[round] + this.keys[round]) & this.mask;
+                x ^= x >>> this.shift;
+            }
+            return x;
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineWriter {
+        void write(ReportWriter writer, long line);
+    }
+}
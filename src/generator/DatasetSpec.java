@@ -0,0 +1,66 @@
+package generator;
+
+import shared.AccountFileOptions;
+
+/**
+ * <h2>
+ * Shape of a generated dataset
+ * </h2>
+ *
+ * <p>
+ * The same spec always generates the same files, whatever the number of threads: every line is a function of the seed
+ * and of its position in the file.
+ * </p>
+ *
+ * @param rows           the number of lines of the account file
+ * @param cpfCardinality the number of lines of the CPF file, which are the owners of the accounts (the duplicate lines
+ *                       make the number of distinct CPFs a bit lower)
+ * @param duplicateRate  the fraction, from 0 to less than 1, of the lines of both files that repeat the key of an earlier line
+ *                       (the agency and account, or the CPF) instead of having a new one
+ * @param skew           the exponent of the Zipf distribution of the accounts over the owners: 0 gives the same
+ *                       number of accounts to every owner, and the bigger it is, the more accounts the first owners have
+ * @param sortedness     the fraction, from 0 to 1, of the accounts that are in ascending order of agency and account:
+ *                       1 gives a sorted file, and 0 a file in random order
+ * @param seed           the seed of every random choice
+ */
+public record DatasetSpec(long rows, long cpfCardinality, double duplicateRate, double skew, double sortedness, long seed) {
+    public static final long DEFAULT_SEED = 42;
+
+    // the CPF numbers have 11 digits
+    static final long MAX_CPFS = 100_000_000_000L;
+
+    public DatasetSpec {
+        if (rows < 1) throw new IllegalArgumentException("Rows must be positive: " + rows);
+        if (cpfCardinality < 1 || cpfCardinality > MAX_CPFS) throw new IllegalArgumentException("Invalid CPF cardinality: " + cpfCardinality);
+        if (!(duplicateRate >= 0 && duplicateRate < 1)) throw new IllegalArgumentException("Invalid duplicate rate: " + duplicateRate);
+        if (!(skew >= 0) || Double.isInfinite(skew)) throw new IllegalArgumentException("Invalid skew: " + skew);
+        if (!(sortedness >= 0 && sortedness <= 1)) throw new IllegalArgumentException("Invalid sortedness: " + sortedness);
+    }
+
+    /**
+     * Spec of the given file: a CPF for every 4 accounts, no duplicates, no skew, random order and the default seed.
+     */
+    public static DatasetSpec of(AccountFileOptions option) {
+        return new DatasetSpec(option.getRows(), Math.max(1, option.getRows() / 4), 0, 0, 0, DEFAULT_SEED);
+    }
+
+    public DatasetSpec withCpfCardinality(long cpfCardinality) {
+        return new DatasetSpec(this.rows, cpfCardinality, this.duplicateRate, this.skew, this.sortedness, this.seed);
+    }
+
+    public DatasetSpec withDuplicateRate(double duplicateRate) {
+        return new DatasetSpec(this.rows, this.cpfCardinality, duplicateRate, this.skew, this.sortedness, this.seed);
+    }
+
+    public DatasetSpec withSkew(double skew) {
+        return new DatasetSpec(this.rows, this.cpfCardinality, this.duplicateRate, skew, this.sortedness, this.seed);
+    }
+
+    public DatasetSpec withSortedness(double sortedness) {
+        return new DatasetSpec(this.rows, this.cpfCardinality, this.duplicateRate, this.skew, sortedness, this.seed);
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(this.rows, this.cpfCardinality, this.duplicateRate, this.skew, this.sortedness, seed);
+    }
+}
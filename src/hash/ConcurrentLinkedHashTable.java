@@ -0,0 +1,186 @@
+package hash;
+
+import shared.ConcurrentDataStructure;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Thread-safe linked hash table with lock striping
+ * </h2>
+ *
+ * <p>
+ * The elements are split into segments by their hash code, and each segment is an independent {@link LinkedHashTable}
+ * guarded by its own read-write lock. Threads working on different segments never wait for each other, so several
+ * threads can load the same table at the same time, and each segment still grows and shrinks incrementally on its own.
+ * </p>
+ *
+ * <p>
+ * {@link #forEach(Consumer)} is weakly consistent: each segment is copied under its read lock and the consumer runs
+ * outside of any lock, so it sees every element present before the call and may or may not see concurrent changes.
+ * </p>
+ *
+ * @param <T> generic type
+ * @see <a href="https://en.wikipedia.org/wiki/Lock_(computer_science)#Granularity">Lock granularity</a>
+ */
+public class ConcurrentLinkedHashTable<T extends Comparable<T>> implements ConcurrentDataStructure<T> {
+    private static final int DEFAULT_SIZE = 16;
+
+    private final LinkedHashTable<T>[] segments;
+
+    private final ReadWriteLock[] locks;
+
+    private final LongAdder tableSize = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentLinkedHashTable(int size, int concurrencyLevel) {
+        if (concurrencyLevel <= 0) throw new IllegalArgumentException("Concurrency level must be positive");
+
+        // a power of two number of segments, so the segment is picked with a mask
+        int segmentCount = concurrencyLevel == 1 ? 1 : Integer.highestOneBit(concurrencyLevel - 1) << 1;
+
+        this.segments = new LinkedHashTable[segmentCount];
+        this.locks = new ReadWriteLock[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new LinkedHashTable<>(Math.max(size / segmentCount, 1));
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    public ConcurrentLinkedHashTable(int size) {
+        this(size, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public ConcurrentLinkedHashTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    @Override
+    public boolean add(T data) {
+        int segment = this.segmentOf(data);
+        var lock = this.locks[segment].writeLock();
+        lock.lock();
+        try {
+            this.segments[segment].add(data);
+        } finally {
+            lock.unlock();
+        }
+        this.tableSize.increment();
+        return true;
+    }
+
+    /**
+     * <h2>
+     * Add the given data only if it is not in the table yet
+     * </h2>
+     *
+     * <p>
+     * A {@code contains} followed by an {@code add} is not atomic when other threads write to the table. This method does
+     * both under the lock of the segment, so concurrent loaders can't insert the same element twice.
+     * </p>
+     *
+     * @param data the data to be added
+     * @return true if the data was added, false if it was already in the table
+     */
+    @Override
+    public boolean addIfAbsent(T data) {
+        int segment = this.segmentOf(data);
+        var lock = this.locks[segment].writeLock();
+        lock.lock();
+        try {
+            if (this.segments[segment].contains(data)) return false;
+            this.segments[segment].add(data);
+        } finally {
+            lock.unlock();
+        }
+        this.tableSize.increment();
+        return true;
+    }
+
+    @Override
+    public boolean remove(T data) {
+        int segment = this.segmentOf(data);
+        var lock = this.locks[segment].writeLock();
+        lock.lock();
+        try {
+            if (!this.segments[segment].remove(data)) return false;
+        } finally {
+            lock.unlock();
+        }
+        this.tableSize.decrement();
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.tableSize.intValue();
+    }
+
+    @Override
+    public boolean contains(T data) {
+        int segment = this.segmentOf(data);
+        var lock = this.locks[segment].readLock();
+        lock.lock();
+        try {
+            return this.segments[segment].contains(data);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.segments.length; i++) {
+            var lock = this.locks[i].writeLock();
+            lock.lock();
+            try {
+                this.tableSize.add(-this.segments[i].size());
+                this.segments[i].clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        Objects.requireNonNull(consumer);
+        var snapshot = new ArrayList<T>();
+
+        for (int i = 0; i < this.segments.length; i++) {
+            var lock = this.locks[i].readLock();
+            lock.lock();
+            try {
+                this.segments[i].forEach(snapshot::add);
+            } finally {
+                lock.unlock();
+            }
+
+            snapshot.forEach(consumer);
+            snapshot.clear();
+        }
+    }
+
+    private int segmentOf(T data) {
+        int hash = Objects.requireNonNull(data).hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (this.segments.length - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "segments: " + segments.length +
+                ", size: " + size() +
+                '}';
+    }
+}
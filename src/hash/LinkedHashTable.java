@@ -1,40 +1,66 @@
 package hash;
 
+import metrics.Measurable;
 import shared.DataStructure;
 import sorting.SortedLinkedList;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T>, Serializable {
+public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T>, Measurable, Serializable {
     private static final int DEFAULT_SIZE = 10;
 
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+
+    // number of old buckets moved to the new table by each add or remove while rehashing
+    private static final int REHASH_STEP = 8;
+
     private SortedLinkedList<T>[] table;
 
+    // table being drained into the new one while rehashing, null otherwise
+    private SortedLinkedList<T>[] oldTable;
+
+    // next bucket of the old table to be moved
+    private int rehashIndex;
+
+    private final double loadFactor;
+
+    private final int minimumSize;
+
     private int size;
 
     private int tableSize;
 
-    public LinkedHashTable(int size) {
+    public LinkedHashTable(int size, double loadFactor) {
+        if (loadFactor <= 0 || Double.isNaN(loadFactor)) throw new IllegalArgumentException("Load factor must be positive");
+
         var tempSize = BigDecimal
                 .valueOf(size)
                 .multiply(BigDecimal.valueOf(1.1))
                 .intValue();
         table = new SortedLinkedList[calculatePrime(tempSize)];
         this.size = table.length;
+        this.minimumSize = table.length;
+        this.loadFactor = loadFactor;
         tableSize = 0;
     }
 
+    public LinkedHashTable(int size) {
+        this(size, DEFAULT_LOAD_FACTOR);
+    }
+
     public LinkedHashTable() {
         this(DEFAULT_SIZE);
     }
 
     private static int calculatePrime(int size) {
-        int prime = size;
+        int prime = Math.max(size, 2);
         while (!isPrime(prime)) {
             prime++;
         }
@@ -42,39 +68,39 @@ public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T
     }
 
     private static boolean isPrime(int prime) {
-        for (int i = 2; i < prime; i++) {
+        for (int i = 2; i * i <= prime; i++) {
             if (prime % i == 0) return false;
         }
         return true;
     }
 
     public boolean add(T data) {
-        int index = this.hash(data);
-        if (this.tableSize + 1 > this.table.length) this.grow();
-        if (index > this.table.length) this.grow();
+        this.rehashStep();
 
-        if (table[index] == null) {
-            table[index] = new SortedLinkedList<>();
+        if (!this.isRehashing() && this.tableSize + 1 > this.table.length * this.loadFactor) {
+            this.resize(calculatePrime(this.size * 2));
         }
-        table[index].add(data);
+
+        this.insert(this.table, data);
         this.tableSize++;
         return true;
     }
 
     public boolean remove(T data) {
-        // shrink's the table if the table size is less than 1/4 of the table length
-        if (this.tableSize - 1 < this.table.length / 4) this.shrink();
-        int index = this.hash(data);
-        if (table[index] == null) {
+        this.rehashStep();
+
+        if (!this.delete(this.table, data) && !(this.isRehashing() && this.delete(this.oldTable, data))) {
             return false;
         }
 
-        if (table[index].remove(data)) {
-            this.tableSize--;
-            return true;
+        this.tableSize--;
+
+        // shrink's the table if the table size is less than 1/4 of the table capacity
+        if (!this.isRehashing() && this.size > this.minimumSize && this.tableSize < this.table.length * this.loadFactor / 4) {
+            this.resize(calculatePrime(Math.max(this.size / 2, this.minimumSize)));
         }
 
-        return false;
+        return true;
     }
 
     public int size() {
@@ -83,17 +109,15 @@ public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T
 
     @Override
     public boolean contains(T data) {
-        int index = this.hash(data);
-        if (table[index] == null) {
-            return false;
-        }
+        if (this.contains(this.table, data)) return true;
 
-        return table[index].contains(data);
+        return this.isRehashing() && this.contains(this.oldTable, data);
     }
 
     @Override
     public void clear() {
         this.table = new SortedLinkedList[this.size];
+        this.oldTable = null;
         this.tableSize = 0;
     }
 
@@ -103,47 +127,121 @@ public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T
     }
 
     public void forEach(Consumer<T> consumer) {
-        for (var list : this.table) {
-            if (list != null) {
-                list.forEach(Objects.requireNonNull(consumer));
-            }
-        }
+        Objects.requireNonNull(consumer);
+        if (this.isRehashing()) this.forEach(this.oldTable, consumer);
+        this.forEach(this.table, consumer);
     }
 
     public Stream<T> stream() {
-        return Arrays.stream(this.table)
+        return this.buckets()
                 .filter(Objects::nonNull)
                 .flatMap(SortedLinkedList::stream);
     }
 
-    private int hash(T data) {
-        int hash = Objects.requireNonNull(data).hashCode();
-        if (hash < 0) hash *= -1;
-        return hash % this.size;
+    // buckets of both tables while rehashing, null for the empty ones
+    private Stream<SortedLinkedList<T>> buckets() {
+        return this.isRehashing() ? Stream.concat(Arrays.stream(this.oldTable), Arrays.stream(this.table)) : Arrays.stream(this.table);
     }
 
-    private void grow() {
-        var oldTable = this.table;
-        this.table = new SortedLinkedList[this.size * 2];
-        this.size = this.table.length;
-        this.tableSize = 0;
-        for (var list : oldTable) {
+    /**
+     * <h2>
+     * Length of the chains of the table
+     * </h2>
+     *
+     * <p>
+     * The number of buckets, how many of them have at least one element, the longest chain and the average length of the
+     * chains that are not empty. Long chains mean a bad hash code or a load factor too high for the data. While the table
+     * is rehashing, both tables are counted.
+     * </p>
+     */
+    @Override
+    public Map<String, Number> metrics() {
+        int buckets = this.table.length + (this.isRehashing() ? this.oldTable.length : 0);
+        var chains = this.buckets()
+                .filter(list -> list != null && !list.isEmpty())
+                .mapToInt(SortedLinkedList::size)
+                .summaryStatistics();
+
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("buckets", buckets);
+        metrics.put("used buckets", chains.getCount());
+        metrics.put("longest bucket", chains.getCount() == 0 ? 0 : chains.getMax());
+        metrics.put("average bucket", chains.getAverage());
+        return metrics;
+    }
+
+    private void forEach(SortedLinkedList<T>[] buckets, Consumer<T> consumer) {
+        for (var list : buckets) {
             if (list != null) {
-                list.forEach(this::add);
+                list.forEach(consumer);
             }
         }
     }
 
-    private void shrink() {
-        var oldTable = this.table;
-        this.table = new SortedLinkedList[this.size / 2];
+    private int hash(T data, int length) {
+        int hash = Objects.requireNonNull(data).hashCode();
+        return Math.floorMod(hash, length);
+    }
+
+    private void insert(SortedLinkedList<T>[] buckets, T data) {
+        int index = this.hash(data, buckets.length);
+        if (buckets[index] == null) {
+            buckets[index] = new SortedLinkedList<>();
+        }
+        buckets[index].add(data);
+    }
+
+    private boolean delete(SortedLinkedList<T>[] buckets, T data) {
+        int index = this.hash(data, buckets.length);
+        return buckets[index] != null && buckets[index].remove(data);
+    }
+
+    private boolean contains(SortedLinkedList<T>[] buckets, T data) {
+        int index = this.hash(data, buckets.length);
+        return buckets[index] != null && buckets[index].contains(data);
+    }
+
+    private boolean isRehashing() {
+        return this.oldTable != null;
+    }
+
+    /**
+     * <h2>
+     * Start moving the elements to a table with the given capacity
+     * </h2>
+     *
+     * <p>
+     * Instead of rehashing every element at once, which makes the operation that triggers the resize as slow as the whole
+     * table, the current table is kept as the old table and its buckets are moved to the new one a few at a time by the
+     * next adds and removes (see {@link #rehashStep()}). While this happens, new elements go to the new table and lookups
+     * check both tables.
+     * </p>
+     *
+     * @param capacity the number of buckets of the new table
+     * @see <a href="https://en.wikipedia.org/wiki/Hash_table#Incremental_resizing">Incremental resizing</a>
+     */
+    private void resize(int capacity) {
+        this.oldTable = this.table;
+        this.table = new SortedLinkedList[capacity];
         this.size = this.table.length;
-        this.tableSize = 0;
-        for (var list : oldTable) {
+        this.rehashIndex = 0;
+    }
+
+    private void rehashStep() {
+        if (!this.isRehashing()) return;
+
+        int limit = Math.min(this.rehashIndex + REHASH_STEP, this.oldTable.length);
+        for (; this.rehashIndex < limit; this.rehashIndex++) {
+            var list = this.oldTable[this.rehashIndex];
             if (list != null) {
-                list.forEach(this::add);
+                list.forEach(data -> this.insert(this.table, data));
+                this.oldTable[this.rehashIndex] = null;
             }
         }
+
+        if (this.rehashIndex == this.oldTable.length) {
+            this.oldTable = null;
+        }
     }
 
     @Override
@@ -151,6 +249,7 @@ public class LinkedHashTable<T extends Comparable<T>> implements DataStructure<T
         return "{" +
                 "hash table: " + Arrays.toString(table) +
                 ", size: " + tableSize +
+                ", rehashing: " + isRehashing() +
                 '}';
     }
 }
@@ -0,0 +1,227 @@
+package hash;
+
+import shared.DataStructure;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * <h2>
+ * Open addressing hash table keyed by a primitive long
+ * </h2>
+ *
+ * <p>
+ * Unlike {@link LinkedHashTable}, this table has no buckets: the keys live in a flat {@code long[]} and the elements in a
+ * parallel array, and collisions are solved with linear probing. Loading the table allocates only these two arrays (and
+ * their replacements when the table grows), and a lookup compares primitive keys that are next to each other in memory,
+ * so most of them are solved in the same cache line.
+ * </p>
+ *
+ * <p>
+ * The key of each element is given by a key extractor, for example {@code BankAccount::primaryKey} or
+ * {@code Cpf::number}. Two elements with the same key are the same element for this table, so {@link #add(Comparable)}
+ * returns false for a key that is already present.
+ * </p>
+ *
+ * @param <T> generic type
+ * @see <a href="https://en.wikipedia.org/wiki/Linear_probing">Linear probing</a>
+ */
+public class LongHashTable<T extends Comparable<T>> implements DataStructure<T> {
+    private static final int DEFAULT_SIZE = 16;
+
+    // linear probing degrades fast above this load factor
+    private static final double LOAD_FACTOR = 0.5;
+
+    // 2^64 / golden ratio, used to spread the keys over the table (fibonacci hashing)
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final ToLongFunction<T> keyExtractor;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int shift;
+
+    private int threshold;
+
+    private int size;
+
+    public LongHashTable(ToLongFunction<T> keyExtractor, int expectedSize) {
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.allocate(tableLengthFor(expectedSize));
+    }
+
+    public LongHashTable(ToLongFunction<T> keyExtractor) {
+        this(keyExtractor, DEFAULT_SIZE);
+    }
+
+    private static int tableLengthFor(int expectedSize) {
+        int length = Integer.highestOneBit(Math.max((int) Math.ceil(expectedSize / LOAD_FACTOR), 2) - 1) << 1;
+        if (length <= 0) throw new IllegalArgumentException("Table size too large: " + expectedSize);
+        return length;
+    }
+
+    @Override
+    public boolean add(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        long key = this.keyExtractor.applyAsLong(data);
+        int index = this.indexOf(key);
+        if (Objects.nonNull(this.values[index])) return false;
+
+        if (this.size + 1 > this.threshold) {
+            this.grow();
+            index = this.indexOf(key);
+        }
+
+        this.keys[index] = key;
+        this.values[index] = data;
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        int index = this.indexOf(this.keyExtractor.applyAsLong(data));
+        if (Objects.isNull(this.values[index])) return false;
+
+        this.deleteAt(index);
+        this.size--;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+        return this.containsKey(this.keyExtractor.applyAsLong(data));
+    }
+
+    public boolean containsKey(long key) {
+        return Objects.nonNull(this.values[this.indexOf(key)]);
+    }
+
+    /**
+     * <h2>
+     * Get the element with the given key
+     * </h2>
+     *
+     * @param key the primitive key of the element
+     * @return the element with the given key, or null if there is no such element
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        return (T) this.values[this.indexOf(key)];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<T> consumer) {
+        Objects.requireNonNull(consumer);
+        for (var value : this.values) {
+            if (Objects.nonNull(value)) {
+                consumer.accept((T) value);
+            }
+        }
+    }
+
+    private int hash(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> this.shift);
+    }
+
+    /**
+     * Probe the table from the home slot of the key until the key or an empty slot is found.
+     *
+     * @param key the key to be searched
+     * @return the slot of the key, or the empty slot where it would be inserted
+     */
+    private int indexOf(long key) {
+        int mask = this.keys.length - 1;
+        int index = this.hash(key);
+        while (Objects.nonNull(this.values[index]) && this.keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * <h2>
+     * Delete the element at the given slot
+     * </h2>
+     *
+     * <p>
+     * With linear probing, an empty slot ends every probe sequence, so we can't just clear the slot. The following
+     * elements of the cluster are shifted back into the hole when their home slot allows it, which keeps every element
+     * reachable without tombstones.
+     * </p>
+     *
+     * @param index the slot to be deleted
+     */
+    private void deleteAt(int index) {
+        int mask = this.keys.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (Objects.nonNull(this.values[next])) {
+            int home = this.hash(this.keys[next]);
+            // the element can move to the hole if its home slot is not in the cyclic range (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.keys[hole] = this.keys[next];
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        this.values[hole] = null;
+    }
+
+    private void allocate(int length) {
+        this.keys = new long[length];
+        this.values = new Object[length];
+        this.shift = Long.numberOfLeadingZeros(length - 1L);
+        this.threshold = (int) (length * LOAD_FACTOR);
+    }
+
+    private void grow() {
+        var oldKeys = this.keys;
+        var oldValues = this.values;
+        this.allocate(oldKeys.length * 2);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (Objects.nonNull(oldValues[i])) {
+                int index = this.indexOf(oldKeys[i]);
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "{" +
+                "long hash table: " + this.size +
+                " of " + this.keys.length +
+                " slots}";
+    }
+}
@@ -0,0 +1,149 @@
+package metrics;
+
+import shared.DataStructure;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Data structure that counts the comparisons of its elements
+ * </h2>
+ *
+ * <p>
+ * The elements are kept in the wrapped structure inside a {@link Counted}, whose {@code compareTo} increments the
+ * counter of this structure before comparing the elements, so every comparison made by the structure, or by a sort of
+ * it, is counted without any change to the type of the elements. The count is reported by {@link #metrics()}, after the
+ * internals of the wrapped structure if it is {@link Measurable}.
+ * </p>
+ *
+ * <p>
+ * Each element costs an extra object, so the structures are only wrapped when {@link Metrics#ENABLED} is true.
+ * </p>
+ *
+ * @param <E> generic type
+ */
+public class CountingDataStructure<E extends Comparable<E>> implements DataStructure<E>, Measurable {
+    private final DataStructure<Counted<E>> dataStructure;
+    private final LongAdder comparisons = new LongAdder();
+
+    /**
+     * @param dataStructure an empty structure of counted elements, like {@code new AvlTree<Counted<Cpf>>()}
+     */
+    public CountingDataStructure(DataStructure<Counted<E>> dataStructure) {
+        if (Objects.isNull(dataStructure)) throw new IllegalArgumentException("Data structure cannot be null");
+        this.dataStructure = dataStructure;
+    }
+
+    /**
+     * @return the wrapped data structure, for the sorts that need its concrete type
+     */
+    public DataStructure<Counted<E>> dataStructure() {
+        return this.dataStructure;
+    }
+
+    /**
+     * @return the number of comparisons of the elements since this structure was created
+     */
+    public long comparisons() {
+        return this.comparisons.sum();
+    }
+
+    @Override
+    public boolean add(E data) {
+        return this.dataStructure.add(this.counted(data));
+    }
+
+    @Override
+    public boolean remove(E data) {
+        return this.dataStructure.remove(this.counted(data));
+    }
+
+    @Override
+    public int size() {
+        return this.dataStructure.size();
+    }
+
+    @Override
+    public boolean contains(E data) {
+        return this.dataStructure.contains(this.counted(data));
+    }
+
+    @Override
+    public void clear() {
+        this.dataStructure.clear();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.dataStructure.isEmpty();
+    }
+
+    @Override
+    public void forEach(Consumer<E> consumer) {
+        Objects.requireNonNull(consumer);
+        this.dataStructure.forEach(counted -> consumer.accept(counted.value()));
+    }
+
+    @Override
+    public Map<String, Number> metrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        if (this.dataStructure instanceof Measurable measurable) metrics.putAll(measurable.metrics());
+        metrics.put("element comparisons", this.comparisons());
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return this.dataStructure.toString();
+    }
+
+    private Counted<E> counted(E data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+        return new Counted<>(data, this.comparisons);
+    }
+
+    /**
+     * An element of a {@link CountingDataStructure}. It is equal to another one, and has the same hash code, when their
+     * values are equal, so the hash tables keep working on the values.
+     *
+     * @param <E> generic type
+     */
+    public static final class Counted<E extends Comparable<E>> implements Comparable<Counted<E>> {
+        private final E value;
+        private final LongAdder comparisons;
+
+        private Counted(E value, LongAdder comparisons) {
+            this.value = value;
+            this.comparisons = comparisons;
+        }
+
+        public E value() {
+            return this.value;
+        }
+
+        @Override
+        public int compareTo(Counted<E> o) {
+            this.comparisons.increment();
+            return this.value.compareTo(o.value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Counted<?> other && this.value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.value.toString();
+        }
+    }
+}
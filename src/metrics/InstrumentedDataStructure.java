@@ -0,0 +1,175 @@
+package metrics;
+
+import shared.DataStructure;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Data structure decorator that records the metrics of each operation
+ * </h2>
+ *
+ * <p>
+ * Wraps any {@link DataStructure} and keeps, for each {@link Operation}, a {@link LatencyHistogram} of its latencies and
+ * the number of calls that returned true (the adds that were accepted, the elements found). The latency of
+ * {@link #forEach(Consumer)} includes the consumer. {@link #size()} and {@link #isEmpty()} are not recorded.
+ * </p>
+ *
+ * <p>
+ * The structures are created through {@link #of(String, DataStructure)}, which returns the structure itself when
+ * {@link Metrics#ENABLED} is false, so a disabled run doesn't even pay for the extra call. Each decorator is registered
+ * in {@link Metrics} under its name, to be written in the summary with the internals of the structure, see
+ * {@link #metrics()}.
+ * </p>
+ *
+ * <p>
+ * The decorator is thread-safe if the structure is, but it is not a {@code ConcurrentDataStructure}, so the loaders
+ * add the records through it one at a time.
+ * </p>
+ *
+ * @param <E> generic type
+ */
+public class InstrumentedDataStructure<E extends Comparable<E>> implements DataStructure<E>, Measurable {
+
+    public enum Operation {
+        ADD, REMOVE, CONTAINS, CLEAR, FOR_EACH
+    }
+
+    private final String name;
+    private final DataStructure<E> dataStructure;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> hits = new EnumMap<>(Operation.class);
+
+    // internals of the structure right before the last clear
+    private volatile Map<String, Number> metricsBeforeClear = Map.of();
+
+    private InstrumentedDataStructure(String name, DataStructure<E> dataStructure) {
+        this.name = name;
+        this.dataStructure = dataStructure;
+        for (var operation : Operation.values()) {
+            this.latencies.put(operation, new LatencyHistogram());
+            this.hits.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * <h2>
+     * Instrument a data structure
+     * </h2>
+     *
+     * @param name          the name of the structure in the summary, like {@code avl conta500.txt}
+     * @param dataStructure the structure to be instrumented
+     * @return the instrumented structure, or the structure itself if the metrics are disabled
+     */
+    public static <E extends Comparable<E>> DataStructure<E> of(String name, DataStructure<E> dataStructure) {
+        if (Objects.isNull(dataStructure)) throw new IllegalArgumentException("Data structure cannot be null");
+        if (!Metrics.ENABLED) return dataStructure;
+
+        var instrumented = new InstrumentedDataStructure<>(name, dataStructure);
+        Metrics.register(instrumented);
+        return instrumented;
+    }
+
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * @return the wrapped data structure
+     */
+    public DataStructure<E> dataStructure() {
+        return this.dataStructure;
+    }
+
+    public LatencyHistogram latency(Operation operation) {
+        return this.latencies.get(operation);
+    }
+
+    /**
+     * @return the number of calls of the operation that returned true
+     */
+    public long hits(Operation operation) {
+        return this.hits.get(operation).sum();
+    }
+
+    @Override
+    public boolean add(E data) {
+        long start = System.nanoTime();
+        boolean added = this.dataStructure.add(data);
+        return this.record(Operation.ADD, start, added);
+    }
+
+    @Override
+    public boolean remove(E data) {
+        long start = System.nanoTime();
+        boolean removed = this.dataStructure.remove(data);
+        return this.record(Operation.REMOVE, start, removed);
+    }
+
+    @Override
+    public int size() {
+        return this.dataStructure.size();
+    }
+
+    @Override
+    public boolean contains(E data) {
+        long start = System.nanoTime();
+        boolean found = this.dataStructure.contains(data);
+        return this.record(Operation.CONTAINS, start, found);
+    }
+
+    @Override
+    public void clear() {
+        if (this.dataStructure instanceof Measurable measurable && !this.dataStructure.isEmpty()) {
+            this.metricsBeforeClear = measurable.metrics();
+        }
+
+        long start = System.nanoTime();
+        this.dataStructure.clear();
+        this.record(Operation.CLEAR, start, true);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.dataStructure.isEmpty();
+    }
+
+    @Override
+    public void forEach(Consumer<E> consumer) {
+        long start = System.nanoTime();
+        this.dataStructure.forEach(consumer);
+        this.record(Operation.FOR_EACH, start, true);
+    }
+
+    /**
+     * <h2>
+     * Internals of the wrapped structure
+     * </h2>
+     *
+     * <p>
+     * The reports clear the structures once they are written, so an empty structure gives the internals it had right
+     * before it was cleared. A structure that is not {@link Measurable} has no internals.
+     * </p>
+     */
+    @Override
+    public Map<String, Number> metrics() {
+        if (!(this.dataStructure instanceof Measurable measurable)) return Map.of();
+
+        return this.dataStructure.isEmpty() && !this.metricsBeforeClear.isEmpty() ? this.metricsBeforeClear : measurable.metrics();
+    }
+
+    @Override
+    public String toString() {
+        return this.dataStructure.toString();
+    }
+
+    private boolean record(Operation operation, long start, boolean result) {
+        this.latencies.get(operation).record(System.nanoTime() - start);
+        if (result) this.hits.get(operation).increment();
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>
+ * Histogram of latencies with power of two buckets
+ * </h2>
+ *
+ * <p>
+ * Bucket {@code b} counts the latencies from 2<sup>b-1</sup> to 2<sup>b</sup> - 1 nanoseconds (bucket 0 counts the
+ * zeros), so 64 counters cover any {@code long} and recording a latency is a single {@link Long#numberOfLeadingZeros}
+ * plus an atomic increment. The percentiles are the upper bound of the bucket where they fall, so they are at most twice
+ * the real value. Every method is thread-safe.
+ * </p>
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        this.counts.incrementAndGet(bucketOf(nanos));
+        this.total.add(nanos);
+        if (nanos > this.max.get()) this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long count() {
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += this.counts.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * @return the mean latency in nanoseconds, or 0 if nothing was recorded
+     */
+    public double mean() {
+        long count = this.count();
+        return count == 0 ? 0 : (double) this.total.sum() / count;
+    }
+
+    public long max() {
+        return this.max.get();
+    }
+
+    /**
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound, in nanoseconds, of the bucket that holds the given percentile, or 0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) throw new IllegalArgumentException("Invalid percentile: " + percentile);
+
+        long count = this.count();
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= rank) return upperBound(bucket);
+        }
+        return this.max();
+    }
+
+    private static int bucketOf(long nanos) {
+        return BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,22 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * <h2>
+ * Data structure that exposes its internals
+ * </h2>
+ *
+ * <p>
+ * The values are computed or read when this method is called, like the chain lengths of a hash table or the height of
+ * a tree, so a structure pays nothing for them while it is used. The counters that can only be kept while the
+ * structure works, like the rotations of a tree, are only updated when {@link Metrics#ENABLED} is true.
+ * </p>
+ */
+public interface Measurable {
+
+    /**
+     * @return the name and the current value of each internal metric, in the order they should be reported
+     */
+    Map<String, Number> metrics();
+}
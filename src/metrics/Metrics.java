@@ -0,0 +1,101 @@
+package metrics;
+
+import shared.ReportWriter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <h2>
+ * Switch and registry of the metrics
+ * </h2>
+ *
+ * <p>
+ * The metrics are enabled with {@code -Dmetrics=true}. {@link #ENABLED} is a {@code static final} constant, so when it
+ * is false the JIT compiler removes every {@code if (Metrics.ENABLED)} block of the structures as dead code, and
+ * {@link InstrumentedDataStructure#of(String, shared.DataStructure)} doesn't wrap anything: a run without metrics
+ * executes the same code as before they existed.
+ * </p>
+ *
+ * <p>
+ * The instrumented structures register themselves here, and {@link #writeSummary(String)} writes their operation
+ * metrics and the internals of the ones that are {@link Measurable}, like the element comparisons counted by a
+ * {@link CountingDataStructure}, to a file next to the reports.
+ * </p>
+ */
+public final class Metrics {
+    public static final String PROPERTY = "metrics";
+
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final Queue<InstrumentedDataStructure<?>> STRUCTURES = new ConcurrentLinkedQueue<>();
+
+    private static final double[] PERCENTILES = {50, 99};
+
+    private Metrics() {
+    }
+
+    static void register(InstrumentedDataStructure<?> structure) {
+        STRUCTURES.add(structure);
+    }
+
+    /**
+     * @return the instrumented structures, sorted by name
+     */
+    public static List<InstrumentedDataStructure<?>> structures() {
+        var structures = new ArrayList<>(STRUCTURES);
+        structures.sort(Comparator.comparing(InstrumentedDataStructure::name));
+        return structures;
+    }
+
+    /**
+     * Forget the registered structures, so the next summary only has the structures created after this call.
+     */
+    public static void reset() {
+        STRUCTURES.clear();
+    }
+
+    /**
+     * <h2>
+     * Write the summary of the metrics
+     * </h2>
+     *
+     * <p>
+     * For each instrumented structure, the calls, hits and latencies (mean, percentiles and max, in nanoseconds) of each
+     * operation that was called, followed by its internal metrics. The percentiles are upper bounds, see
+     * {@link LatencyHistogram}.
+     * </p>
+     *
+     * @param fileName the name of the file in the {@code resultados} directory
+     */
+    public static void writeSummary(String fileName) {
+        try (var writer = ReportWriter.open(fileName, "============ METRICAS ============\n\n")) {
+            for (var structure : structures()) {
+                writer.write(structure.name()).write('\n');
+                for (var operation : InstrumentedDataStructure.Operation.values()) {
+                    writeOperation(writer, structure, operation);
+                }
+                structure.metrics().forEach((name, value) -> writer.write("  ").write(name).write(": ").write(value.toString()).write('\n'));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static void writeOperation(ReportWriter writer, InstrumentedDataStructure<?> structure, InstrumentedDataStructure.Operation operation) {
+        var latency = structure.latency(operation);
+        long calls = latency.count();
+        if (calls == 0) return;
+
+        writer.write("  ").write(operation.name().toLowerCase())
+                .write(": calls=").writeLong(calls)
+                .write(" hits=").writeLong(structure.hits(operation))
+                .write(" mean=").writeLong(Math.round(latency.mean())).write("ns");
+        for (double percentile : PERCENTILES) {
+            writer.write(" p").writeLong((long) percentile).write("<=").writeLong(latency.percentile(percentile)).write("ns");
+        }
+        writer.write(" max=").writeLong(latency.max()).write("ns\n");
+    }
+}
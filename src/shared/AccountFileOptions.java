@@ -1,19 +1,71 @@
 package shared;
 
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h2>
+ * Account files of the reports
+ * </h2>
+ *
+ * <p>
+ * The files up to 50000 rows come with the project and share the {@code CPF.txt} file. The larger ones are generated by
+ * {@code generator.DatasetGenerator}, each one with a CPF file of its own, and they are not in the repository: they
+ * must be generated before being used, like {@code java generator.DatasetGenerator CONTA_1M}.
+ * </p>
+ */
 public enum AccountFileOptions {
-    CONTA_500("conta500.txt"),
-    CONTA_1000("conta1000.txt"),
-    CONTA_5000("conta5000.txt"),
-    CONTA_10000("conta10000.txt"),
-    CONTA_50000("conta50000.txt");
+    CONTA_500("conta500.txt", 500),
+    CONTA_1000("conta1000.txt", 1000),
+    CONTA_5000("conta5000.txt", 5000),
+    CONTA_10000("conta10000.txt", 10000),
+    CONTA_50000("conta50000.txt", 50000),
+    CONTA_1M("conta1000000.txt", 1_000_000, "CPF1000000.txt"),
+    CONTA_10M("conta10000000.txt", 10_000_000, "CPF10000000.txt"),
+    CONTA_100M("conta100000000.txt", 100_000_000, "CPF100000000.txt");
+
+    private static final String BUNDLED_CPF_FILE = "CPF.txt";
 
     private final String file;
+    private final int rows;
+    private final String cpfFile;
 
-    AccountFileOptions(String file) {
+    AccountFileOptions(String file, int rows, String cpfFile) {
         this.file = file;
+        this.rows = rows;
+        this.cpfFile = cpfFile;
+    }
+
+    AccountFileOptions(String file, int rows) {
+        this(file, rows, BUNDLED_CPF_FILE);
     }
 
     public String getFileName() {
         return file;
     }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the name of the file with the CPFs of the reports of this account file
+     */
+    public String getCpfFileName() {
+        return cpfFile;
+    }
+
+    /**
+     * @return true if the file is created by the generator instead of coming with the project
+     */
+    public boolean isGenerated() {
+        return !BUNDLED_CPF_FILE.equals(cpfFile);
+    }
+
+    /**
+     * @return the files that come with the project, in order of size
+     */
+    public static List<AccountFileOptions> bundled() {
+        return Arrays.stream(values()).filter(option -> !option.isGenerated()).toList();
+    }
 }
@@ -1,11 +1,47 @@
 package shared;
 
 public record BankAccount(Long agency, Long account, double balance, Cpf ownerCpf) implements Comparable<BankAccount> {
+    static final int FIELDS = 4;
+
+    /**
+     * Parse a line of the account files, in the format {@code agency;account;balance;ownerCpf}
+     *
+     * @param line the line to be parsed
+     * @return the bank account of the line
+     * @throws FileProcessorException if the line doesn't have exactly 4 fields or a field is not a valid number
+     */
+    public static BankAccount fromLine(String line) {
+        var bankLineData = line.split(";", -1);
+        if (bankLineData.length != FIELDS) throw new FileProcessorException("Expected " + FIELDS + " fields in line: " + line);
+
+        try {
+            return new BankAccount(
+                    Long.parseLong(bankLineData[0]),
+                    Long.parseLong(bankLineData[1]),
+                    Double.parseDouble(bankLineData[2]),
+                    new Cpf(bankLineData[3])
+            );
+        } catch (NumberFormatException e) {
+            throw new FileProcessorException("Invalid number in line: " + line, e);
+        }
+    }
+
+    /**
+     * Primitive key of the account, with the agency in the high digits and the 8 digits of the account in the low ones.
+     *
+     * @return the agency and the account packed in a long
+     */
+    public long primaryKey() {
+        return this.agency * 100_000_000L + this.account;
+    }
+
     @Override
     public int compareTo(BankAccount o) {
         // compare by agency and account
+        int byAgency = this.agency.compareTo(o.agency);
+        if (byAgency != 0) return byAgency;
 
-        return this.agency.compareTo(o.agency) - this.account.compareTo(o.account);
+        return this.account.compareTo(o.account);
     }
 
     @Override
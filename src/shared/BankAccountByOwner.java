@@ -0,0 +1,28 @@
+package shared;
+
+/**
+ * <h2>
+ * Bank account re-keyed by its owner CPF
+ * </h2>
+ *
+ * <p>
+ * {@link BankAccount} is ordered by agency and account, which is the primary order of every data structure in this
+ * program. This record wraps a bank account and orders it by owner CPF first, then by agency and account, so any ordered
+ * data structure ({@code AvlTree}, {@code BinaryTree} or a sorted {@code SortedLinkedList}) iterates the accounts
+ * grouped by owner. That is the order required by {@link GroupProcessor#processMergeJoin}.
+ * </p>
+ *
+ * @param account the wrapped bank account
+ */
+public record BankAccountByOwner(BankAccount account) implements Comparable<BankAccountByOwner> {
+    @Override
+    public int compareTo(BankAccountByOwner o) {
+        int byOwner = this.account.ownerCpf().compareTo(o.account.ownerCpf());
+        if (byOwner != 0) return byOwner;
+
+        int byAgency = this.account.agency().compareTo(o.account.agency());
+        if (byAgency != 0) return byAgency;
+
+        return this.account.account().compareTo(o.account.account());
+    }
+}
@@ -0,0 +1,26 @@
+package shared;
+
+public class BankAccountByOwnerHandler implements DataStructureHandler<BankAccountByOwner> {
+
+    private final DataStructure<BankAccountByOwner> dataStructure;
+    private final AccountFileOptions option;
+
+    public BankAccountByOwnerHandler(DataStructure<BankAccountByOwner> dataStructure, AccountFileOptions options) {
+        this.dataStructure = dataStructure;
+        this.option = options;
+    }
+
+    @Override
+    public BankAccountByOwner parseLine(String line) {
+        return new BankAccountByOwner(BankAccount.fromLine(line));
+    }
+
+    @Override
+    public DataStructure<BankAccountByOwner> dataStructure() {
+        return dataStructure;
+    }
+
+    public String getFileName() {
+        return option.getFileName();
+    }
+}
@@ -11,15 +11,8 @@ public class BankAccountHandler implements DataStructureHandler<BankAccount> {
     }
 
     @Override
-    public void processLine(String line) {
-        var bankLineData = line.split(";");
-        var bankAccount = new BankAccount(
-                Long.parseLong(bankLineData[0]),
-                Long.parseLong(bankLineData[1]),
-                Double.parseDouble(bankLineData[2]),
-                new Cpf(bankLineData[3])
-        );
-        dataStructure.add(bankAccount);
+    public BankAccount parseLine(String line) {
+        return BankAccount.fromLine(line);
     }
 
     @Override
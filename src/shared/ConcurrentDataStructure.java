@@ -0,0 +1,25 @@
+package shared;
+
+/**
+ * <h2>
+ * Data structure that accepts concurrent writers
+ * </h2>
+ *
+ * <p>
+ * Every operation of the implementations of this interface is thread-safe, so several threads can load the same
+ * structure at the same time. {@link FileProcessor#processFileParallel(DataStructureHandler)} uses it to add the records
+ * straight from the parser threads instead of merging them at the end.
+ * </p>
+ *
+ * @param <E> generic type
+ */
+public interface ConcurrentDataStructure<E extends Comparable<E>> extends DataStructure<E> {
+
+    /**
+     * Add the given data only if it is not in the structure yet, as a single atomic operation.
+     *
+     * @param data the data to be added
+     * @return true if the data was added, false if it was already in the structure
+     */
+    boolean addIfAbsent(E data);
+}
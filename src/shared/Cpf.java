@@ -1,10 +1,62 @@
 package shared;
 
-public record Cpf(String value) implements Comparable<Cpf> {
+/**
+ * <h2>
+ * CPF stored as a number
+ * </h2>
+ *
+ * <p>
+ * The CPF is parsed once, when it is read, and kept as a primitive {@code long}. Comparing two CPFs is a comparison of
+ * two longs, which is the innermost operation of every tree insert, list search and join of this program. The hash
+ * code spreads the bits of the number, so consecutive CPFs don't fall in consecutive buckets.
+ * </p>
+ *
+ * <p>
+ * {@link #value()} gives back the 11 digits of the CPF, with the leading zeros, as it is written in the reports.
+ * </p>
+ *
+ * @param number the CPF as a number
+ */
+public record Cpf(long number) implements Comparable<Cpf> {
+    static final int DIGITS = 11;
+
+    // 2^64 / golden ratio, spreads the bits of the number over the whole hash code
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    public Cpf {
+        if (number < 0) throw new IllegalArgumentException("CPF cannot be negative");
+    }
+
+    public Cpf(String value) {
+        this(Long.parseLong(value));
+    }
+
+    /**
+     * @return the CPF with 11 digits, padded with leading zeros
+     */
+    public String value() {
+        var digits = new char[DIGITS];
+        long remaining = this.number;
+        for (int i = DIGITS - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        return remaining == 0 ? new String(digits) : Long.toString(this.number);
+    }
+
     @Override
     public int compareTo(Cpf o) {
-        final Long cpfNumeric = Long.parseLong(value);
-        final Long oCpfNumeric = Long.parseLong(o.value);
-        return cpfNumeric.compareTo(oCpfNumeric);
+        return Long.compare(this.number, o.number);
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = this.number * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "Cpf[value=" + this.value() + "]";
     }
 }
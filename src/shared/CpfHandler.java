@@ -3,8 +3,16 @@ package shared;
 public record CpfHandler(DataStructure<Cpf> dataStructure) implements DataStructureHandler<Cpf> {
 
     @Override
-    public void processLine(String line) {
-        var cpf = new Cpf(line);
+    public Cpf parseLine(String line) {
+        return new Cpf(line);
+    }
+
+    @Override
+    public void addRecord(Cpf cpf) {
+        if (dataStructure instanceof ConcurrentDataStructure<Cpf> concurrent) {
+            concurrent.addIfAbsent(cpf);
+            return;
+        }
 
         if (!dataStructure.contains(cpf)) {
             dataStructure.add(cpf);
@@ -2,9 +2,17 @@ package shared;
 
 public interface DataStructureHandler<T extends Comparable<T>> {
 
-    void processLine(String line);
+    T parseLine(String line);
 
     DataStructure<T> dataStructure();
 
     String getFileName();
+
+    default void processLine(String line) {
+        this.addRecord(this.parseLine(line));
+    }
+
+    default void addRecord(T data) {
+        this.dataStructure().add(data);
+    }
 }
@@ -3,9 +3,31 @@ package shared;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class FileProcessor {
 
+    // below this size a chunk is not worth a task of its own
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    // above this size the file is split in more chunks than cores, so the large files are never read in one piece
+    private static final long MAX_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    // bytes read at a time by the task of a chunk, it grows only for a line longer than it
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
     public static void processFile(DataStructureHandler<?> handler) throws FileNotFoundException {
         var inputStreamReader = FileResourceUtils.getStreamReader(handler.getFileName());
         try (var input = new BufferedReader(inputStreamReader)) {
@@ -20,11 +42,217 @@ public class FileProcessor {
             processFile(handler);
         }
     }
-}
 
-class FileProcessorException extends RuntimeException {
+    /**
+     * <h2>
+     * Parse all the lines of a file into records
+     * </h2>
+     *
+     * <p>
+     * Unlike {@link #processFile(DataStructureHandler)}, the records are not added to any structure, so the same parsed
+     * file can be loaded into several data structures without being read again.
+     * </p>
+     *
+     * @param fileName the name of the file in the resources
+     * @param parser   the function that parses a line into a record
+     * @param <T>      the type of the records
+     * @return the records, in the order of the lines
+     * @throws FileProcessorException if the file can't be read
+     */
+    public static <T> List<T> parseFile(String fileName, Function<String, T> parser) {
+        try (var input = new BufferedReader(FileResourceUtils.getStreamReader(fileName))) {
+            return input.lines().map(parser).toList();
+        } catch (IOException e) {
+            throw new FileProcessorException("Error while processing file: " + fileName);
+        }
+    }
+
+    /**
+     * <h2>
+     * Process a file splitting it in chunks that are parsed in parallel
+     * </h2>
+     *
+     * <p>
+     * The file is split in byte ranges that end at line boundaries, and each range is read and parsed by a task of the
+     * common fork/join pool. If the data structure of the handler is a {@link ConcurrentDataStructure}, the tasks add the
+     * records straight into it. Otherwise, each task keeps its records and they are added at the end, chunk after chunk,
+     * so the structure receives the records in the same order as {@link #processFile(DataStructureHandler)}.
+     * </p>
+     *
+     * @param handler the handler of the file
+     * @param <T>     the type of the records
+     * @throws FileProcessorException if the file can't be read
+     */
+    public static <T extends Comparable<T>> void processFileParallel(DataStructureHandler<T> handler) {
+        Consumer<T> concurrentSink = handler.dataStructure() instanceof ConcurrentDataStructure ? handler::addRecord : null;
+
+        for (var chunk : parseChunks(handler.getFileName(), handler::parseLine, concurrentSink)) {
+            chunk.forEach(handler::addRecord);
+        }
+    }
+
+    /**
+     * <h2>
+     * Parse all the lines of a file into records, splitting it in chunks that are parsed in parallel
+     * </h2>
+     *
+     * <p>
+     * Same as {@link #parseFile(String, Function)}, but the chunks of the file are read and parsed by tasks of the common
+     * fork/join pool, like in {@link #processFileParallel(DataStructureHandler)}. The records are returned in the order
+     * of the lines.
+     * </p>
+     *
+     * @param fileName the name of the file in the resources
+     * @param parser   the function that parses a line into a record, called from several threads
+     * @param <T>      the type of the records
+     * @return the records, in the order of the lines
+     * @throws FileProcessorException if the file can't be read
+     */
+    public static <T> List<T> parseFileParallel(String fileName, Function<String, T> parser) {
+        var chunks = parseChunks(fileName, parser, null);
+
+        var records = new ArrayList<T>(chunks.stream().mapToInt(List::size).sum());
+        chunks.forEach(records::addAll);
+        return records;
+    }
+
+    /**
+     * <h2>
+     * Process the files of the given handlers at the same time
+     * </h2>
+     *
+     * <p>
+     * Each handler gets a thread of its own, which runs {@link #processFileParallel(DataStructureHandler)}. The handlers
+     * must not share a data structure, unless it is a {@link ConcurrentDataStructure}.
+     * </p>
+     *
+     * @param handlers the handlers of the files
+     * @throws FileProcessorException if any of the files can't be read
+     */
+    public static void processFileParallel(DataStructureHandler<?>... handlers) {
+        var executor = Executors.newFixedThreadPool(Math.max(handlers.length, 1));
+        try {
+            var files = new ArrayList<CompletableFuture<Void>>();
+            for (var handler : handlers) {
+                files.add(CompletableFuture.runAsync(() -> processFileParallel(handler), executor));
+            }
+            CompletableFuture.allOf(files.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Split the file in about two ranges per core, or in ranges of up to {@link #MAX_CHUNK_SIZE} for the large files,
+     * moving each split point forward to the start of the next line.
+     *
+     * @param channel the channel of the file
+     * @return the end offset (exclusive) of each range, the last one being the size of the file
+     */
+    private static List<Long> splitAtLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2L, size / MIN_CHUNK_SIZE));
+        chunks = Math.max(chunks, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        var ends = new ArrayList<Long>();
+        var buffer = ByteBuffer.allocate(256);
+
+        long previous = 0;
+        for (long i = 1; i < chunks; i++) {
+            long end = nextLineStart(channel, Math.max(size * i / chunks, previous), buffer);
+            if (end > previous && end < size) {
+                ends.add(end);
+                previous = end;
+            }
+        }
+        ends.add(size);
+        return ends;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) return channel.size();
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Split the file at line boundaries and parse each range in a task of the common fork/join pool.
+     *
+     * @param concurrentSink if not null, receives the records straight from the tasks instead of the chunks, so it must
+     *                       be thread-safe
+     * @return the records of each chunk, in the order of the file
+     */
+    private static <T> List<List<T>> parseChunks(String fileName, Function<String, T> parser, Consumer<T> concurrentSink) {
+        try (var channel = FileChannel.open(FileResourceUtils.getPath(fileName), StandardOpenOption.READ)) {
+            var tasks = new ArrayList<CompletableFuture<List<T>>>();
+            long start = 0;
+            for (long end : splitAtLines(channel)) {
+                final long from = start;
+                tasks.add(CompletableFuture.supplyAsync(() -> {
+                    var records = new ArrayList<T>();
+                    parseChunk(channel, from, end, fileName, parser, Objects.isNull(concurrentSink) ? records::add : concurrentSink);
+                    return records;
+                }));
+                start = end;
+            }
 
-    public FileProcessorException(String message) {
-        super(message);
+            var chunks = new ArrayList<List<T>>(tasks.size());
+            for (var task : tasks) {
+                chunks.add(task.join());
+            }
+            return chunks;
+        } catch (IOException e) {
+            throw new FileProcessorException("Error while processing file: " + fileName, e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
     }
-}
\ No newline at end of file
+
+    /**
+     * Read the range through a buffer of {@link #READ_BUFFER_SIZE} and parse each line as soon as it is complete, so a
+     * task never holds more than a buffer of the file.
+     */
+    private static <T> void parseChunk(FileChannel channel, long from, long to, String fileName, Function<String, T> parser, Consumer<T> sink) {
+        var bytes = new byte[READ_BUFFER_SIZE];
+        // bytes of the buffer after the last complete line
+        int pending = 0;
+        long position = from;
+        try {
+            while (position < to) {
+                if (pending == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length * 2);
+
+                int read = channel.read(ByteBuffer.wrap(bytes, pending, (int) Math.min(bytes.length - pending, to - position)), position);
+                if (read < 0) break;
+                position += read;
+
+                int lineStart = 0;
+                for (int i = pending; i < pending + read; i++) {
+                    if (bytes[i] == '\n') {
+                        sink.accept(parser.apply(decodeLine(bytes, lineStart, i)));
+                        lineStart = i + 1;
+                    }
+                }
+                pending += read - lineStart;
+                System.arraycopy(bytes, lineStart, bytes, 0, pending);
+            }
+        } catch (IOException e) {
+            throw new FileProcessorException("Error while processing file: " + fileName, e);
+        }
+
+        // the last line of the file may have no line break
+        if (pending > 0) sink.accept(parser.apply(decodeLine(bytes, 0, pending)));
+    }
+
+    private static String decodeLine(byte[] bytes, int from, int to) {
+        int end = to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+        return new String(bytes, from, end - from, StandardCharsets.UTF_8);
+    }
+}
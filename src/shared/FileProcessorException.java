@@ -0,0 +1,12 @@
+package shared;
+
+class FileProcessorException extends RuntimeException {
+
+    public FileProcessorException(String message) {
+        super(message);
+    }
+
+    public FileProcessorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
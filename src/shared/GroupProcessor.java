@@ -1,40 +1,276 @@
 package shared;
 
+import columnar.ColumnarAccountStore;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 public class GroupProcessor {
-    private final DataStructure<BankAccount> bankAccountDataStructure;
+    // fixed parts of the report, encoded once
+    private static final byte[] CPF_LABEL = "CPF: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AGENCY_LABEL = "agência: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ACCOUNT_LABEL = " conta: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BALANCE_LABEL = " saldo: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOTAL_LABEL = "Saldo total: ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_FOUND_LABEL = "INEXISTENTE\n".getBytes(StandardCharsets.UTF_8);
+
+    private final DataStructure<?> bankAccountDataStructure;
 
-    public GroupProcessor(DataStructure<BankAccount> bankAccountDataStructure) {
+    public GroupProcessor(DataStructure<?> bankAccountDataStructure) {
         this.bankAccountDataStructure = bankAccountDataStructure;
     }
 
     public void process(Consumer<Consumer<Cpf>> cpfIterator, Consumer<Consumer<BankAccount>> bankIterator, String title, String outputFileName) {
-        var sb = new StringBuilder();
-        cpfIterator.accept(cpf -> {
-            sb.append("CPF: ").append(cpf.value()).append("\n");
-            AtomicReference<Double> totalBalance = new AtomicReference<>(0.0);
-            AtomicBoolean found = new AtomicBoolean(false);
-            bankIterator.accept(value -> {
-                if (cpf.compareTo(value.ownerCpf()) == 0) {
-                    sb.append("agência: ").append(value.agency()).append(" conta: ").append(value.account()).append(" saldo: ").append(value.balance()).append("\n");
-                    totalBalance.updateAndGet(v -> v + value.balance());
-                    found.set(true);
+        try (var writer = ReportWriter.open(outputFileName, title)) {
+            cpfIterator.accept(cpf -> {
+                writeHeader(writer, cpf);
+                AtomicReference<Double> totalBalance = new AtomicReference<>(0.0);
+                AtomicBoolean found = new AtomicBoolean(false);
+                bankIterator.accept(value -> {
+                    if (cpf.compareTo(value.ownerCpf()) == 0) {
+                        writeAccount(writer, value);
+                        totalBalance.updateAndGet(v -> v + value.balance());
+                        found.set(true);
+                    }
+                });
+                writeFooter(writer, found.get(), totalBalance.get());
+            });
+        }
+
+        bankAccountDataStructure.clear();
+    }
+
+    /**
+     * <h2>
+     * Hash join between the CPFs and the bank accounts
+     * </h2>
+     *
+     * <p>
+     * Instead of scanning every bank account for every CPF, this method iterates the bank accounts only once to build an
+     * index of CPF -> accounts, keeping the iteration order of the data structure inside each group. Then each CPF is
+     * served with a single lookup in the index, so the cost goes from O(CPFs * accounts) to O(CPFs + accounts).
+     * </p>
+     *
+     * <p>
+     * The output has exactly the same format as {@link #process(Consumer, Consumer, String, String)}, and it works with
+     * any {@link DataStructure} because it only relies on the iterators.
+     * </p>
+     *
+     * @param cpfIterator    the iterator of the CPFs, usually the {@code forEach} of the CPF data structure
+     * @param bankIterator   the iterator of the bank accounts, usually the {@code forEach} of the bank account data structure
+     * @param title          the title of the report
+     * @param outputFileName the name of the report file
+     * @see <a href="https://en.wikipedia.org/wiki/Hash_join">Hash join</a>
+     */
+    public void processHashJoin(Consumer<Consumer<Cpf>> cpfIterator, Consumer<Consumer<BankAccount>> bankIterator, String title, String outputFileName) {
+        Map<Cpf, List<BankAccount>> accountsByCpf = new HashMap<>();
+        bankIterator.accept(value -> accountsByCpf.computeIfAbsent(value.ownerCpf(), cpf -> new ArrayList<>()).add(value));
+
+        try (var writer = ReportWriter.open(outputFileName, title)) {
+            cpfIterator.accept(cpf -> writeGroup(writer, cpf, accountsByCpf.getOrDefault(cpf, List.of())));
+        }
+
+        bankAccountDataStructure.clear();
+    }
+
+    /**
+     * <h2>
+     * Sort-merge join between the CPFs and the bank accounts
+     * </h2>
+     *
+     * <p>
+     * When both sides come in CPF order, the groups can be produced in a single linear pass over each side: the CPFs are
+     * pushed by their iterator and the bank accounts are pulled from the given iterator only while they belong to the
+     * current CPF. Accounts owned by CPFs that are not in the CPF side are skipped. No index is built, so the extra memory
+     * is constant apart from the iterator itself.
+     * </p>
+     *
+     * <p>
+     * The CPFs must come in ascending order, which is the case for the {@code forEach} of {@code AvlTree},
+     * {@code BinaryTree} and a sorted {@code SortedLinkedList}. The bank accounts must be ordered by owner, which is what
+     * a structure of {@link BankAccountByOwner} gives.
+     * </p>
+     *
+     * @param cpfIterator     the iterator of the CPFs, in ascending order
+     * @param accountIterator the iterator of the bank accounts, ordered by owner CPF
+     * @param title           the title of the report
+     * @param outputFileName  the name of the report file
+     * @throws IllegalArgumentException if any of the sides is not in CPF order
+     * @see <a href="https://en.wikipedia.org/wiki/Sort-merge_join">Sort-merge join</a>
+     */
+    public void processMergeJoin(Consumer<Consumer<Cpf>> cpfIterator, Iterator<BankAccountByOwner> accountIterator, String title, String outputFileName) {
+        var cursor = new MergeCursor(accountIterator);
+        try (var writer = ReportWriter.open(outputFileName, title)) {
+            cpfIterator.accept(cpf -> {
+                cursor.skipBefore(cpf);
+
+                writeHeader(writer, cpf);
+                double totalBalance = 0.0;
+                boolean found = false;
+                while (cursor.isOwnedBy(cpf)) {
+                    var value = cursor.next();
+                    writeAccount(writer, value);
+                    totalBalance += value.balance();
+                    found = true;
                 }
+                writeFooter(writer, found, totalBalance);
+            });
+        }
+
+        bankAccountDataStructure.clear();
+    }
+
+    /**
+     * <h2>
+     * Group the CPFs with the accounts of a columnar store
+     * </h2>
+     *
+     * <p>
+     * The store is sorted by owner once, then the accounts of each CPF are found by a binary search on the owner column
+     * and read as a contiguous range of rows, without creating any {@link BankAccount}. The output has the same format as
+     * the other join modes, with the accounts of each CPF in agency/account order.
+     * </p>
+     *
+     * @param cpfIterator    the iterator of the CPFs
+     * @param store          the columnar store of the bank accounts
+     * @param title          the title of the report
+     * @param outputFileName the name of the report file
+     */
+    public void processColumnar(Consumer<Consumer<Cpf>> cpfIterator, ColumnarAccountStore store, String title, String outputFileName) {
+        store.sortByOwner();
+        try (var writer = ReportWriter.open(outputFileName, title)) {
+            cpfIterator.accept(cpf -> {
+                writeHeader(writer, cpf);
+                long owner = cpf.number();
+                double totalBalance = 0.0;
+                int row = store.firstRowOfOwner(owner);
+                int first = row;
+                for (; row < store.size() && store.ownerCpf(row) == owner; row++) {
+                    double balance = store.balanceCents(row) / 100.0;
+                    writeAccount(writer, store.agency(row), store.account(row), balance);
+                    totalBalance += balance;
+                }
+                writeFooter(writer, row > first, totalBalance);
+            });
+        }
+
+        bankAccountDataStructure.clear();
+    }
+
+    /**
+     * <h2>
+     * Group the CPFs with the accounts of an owner-indexed structure
+     * </h2>
+     *
+     * <p>
+     * The index is kept up to date while the accounts are loaded, so nothing is built here: each CPF is served with a
+     * single lookup in the index. The accounts of each CPF come in the order they were loaded.
+     * </p>
+     *
+     * @param cpfIterator    the iterator of the CPFs
+     * @param accounts       the bank accounts, indexed by owner
+     * @param title          the title of the report
+     * @param outputFileName the name of the report file
+     */
+    public void processIndexed(Consumer<Consumer<Cpf>> cpfIterator, OwnerIndexedDataStructure accounts, String title, String outputFileName) {
+        try (var writer = ReportWriter.open(outputFileName, title)) {
+            cpfIterator.accept(cpf -> {
+                writeHeader(writer, cpf);
+                var totalBalance = new double[1];
+                accounts.forEachOfOwner(cpf, value -> {
+                    writeAccount(writer, value);
+                    totalBalance[0] += value.balance();
+                });
+                writeFooter(writer, accounts.hasAccounts(cpf), totalBalance[0]);
             });
-            if (!found.get()) {
-                sb.append("INEXISTENTE\n");
+        }
+
+        bankAccountDataStructure.clear();
+    }
+
+    private static void writeGroup(ReportWriter writer, Cpf cpf, List<BankAccount> accounts) {
+        writeHeader(writer, cpf);
+        double totalBalance = 0.0;
+        for (var value : accounts) {
+            writeAccount(writer, value);
+            totalBalance += value.balance();
+        }
+        writeFooter(writer, !accounts.isEmpty(), totalBalance);
+    }
+
+    private static void writeHeader(ReportWriter writer, Cpf cpf) {
+        writer.write(CPF_LABEL).writeLong(cpf.number(), Cpf.DIGITS).write('\n');
+    }
+
+    private static void writeAccount(ReportWriter writer, BankAccount value) {
+        writeAccount(writer, value.agency(), value.account(), value.balance());
+    }
+
+    private static void writeAccount(ReportWriter writer, long agency, long account, double balance) {
+        writer.write(AGENCY_LABEL).writeLong(agency)
+                .write(ACCOUNT_LABEL).writeLong(account)
+                .write(BALANCE_LABEL).writeDouble(balance).write('\n');
+    }
+
+    private static void writeFooter(ReportWriter writer, boolean found, double totalBalance) {
+        if (found) {
+            writer.write(TOTAL_LABEL).writeDouble(totalBalance).write("\n\n");
+        } else {
+            writer.write(NOT_FOUND_LABEL);
+        }
+
+        writer.write('\n');
+    }
+
+    /**
+     * Account side of the merge join. It holds the next account to be consumed and checks that both sides are in CPF
+     * order while they are merged.
+     */
+    private static class MergeCursor {
+        private final Iterator<BankAccountByOwner> iterator;
+        private BankAccount current;
+        private Cpf lastCpf;
+
+        MergeCursor(Iterator<BankAccountByOwner> iterator) {
+            this.iterator = iterator;
+            this.advance();
+        }
+
+        void skipBefore(Cpf cpf) {
+            if (lastCpf != null && lastCpf.compareTo(cpf) > 0) {
+                throw new IllegalArgumentException("CPFs must be iterated in ascending order");
             }
-            if (found.get()) {
-                sb.append("Saldo total: ").append(totalBalance.get()).append("\n\n");
+            lastCpf = cpf;
+
+            while (current != null && current.ownerCpf().compareTo(cpf) < 0) {
+                this.advance();
             }
+        }
 
-            sb.append("\n");
-        });
+        boolean isOwnedBy(Cpf cpf) {
+            return current != null && current.ownerCpf().compareTo(cpf) == 0;
+        }
 
-        FileWriteable.write(outputFileName, sb.toString(), title);
-        bankAccountDataStructure.clear();
+        BankAccount next() {
+            var value = current;
+            this.advance();
+            return value;
+        }
+
+        private void advance() {
+            var previous = current;
+            current = iterator.hasNext() ? iterator.next().account() : null;
+
+            if (previous != null && current != null && previous.ownerCpf().compareTo(current.ownerCpf()) > 0) {
+                throw new IllegalArgumentException("Bank accounts must be iterated in owner CPF order");
+            }
+        }
     }
 }
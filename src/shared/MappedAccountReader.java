@@ -0,0 +1,188 @@
+package shared;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * <h2>
+ * Memory-mapped reader of the account files
+ * </h2>
+ *
+ * <p>
+ * {@link BankAccountHandler} reads the files line by line and creates a {@code String} for each line and for each field
+ * before the record is even built. This reader maps the file with {@link FileChannel#map} and parses the agency, the
+ * account, the balance and the owner CPF straight from the bytes into primitives, without any intermediate object. The
+ * fields are handed to an {@link AccountSink}, which can store them as columns, or turned into {@link BankAccount}
+ * records by {@link #read(String, DataStructure)}.
+ * </p>
+ *
+ * <p>
+ * The lines must be in the format {@code agency;account;balance;ownerCpf}, with at most two decimal places in the
+ * balance, which is given in cents. Like {@link BankAccount#fromLine(String)}, a line with a missing or an extra field,
+ * a blank line or a number that doesn't fit in a {@code long} is rejected with a {@link FileProcessorException}. Files
+ * bigger than 2 GB are mapped in consecutive windows.
+ * </p>
+ *
+ * @see java.nio.MappedByteBuffer
+ */
+public class MappedAccountReader {
+
+    // a single mapping can't be bigger than Integer.MAX_VALUE bytes
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    private MappedByteBuffer buffer;
+    // position of the current mapping in the file, the cursor is relative to it
+    private long windowStart;
+    private int cursor;
+
+    private MappedAccountReader() {
+    }
+
+    /**
+     * Receives the fields of each account, in the order of the file.
+     */
+    @FunctionalInterface
+    public interface AccountSink {
+        void accept(long agency, long account, long balanceCents, long ownerCpf);
+    }
+
+    public static void read(String file, AccountSink sink) {
+        read(FileResourceUtils.getPath(file), sink);
+    }
+
+    public static void read(String file, DataStructure<BankAccount> dataStructure) {
+        read(FileResourceUtils.getPath(file), dataStructure);
+    }
+
+    public static void read(Path path, DataStructure<BankAccount> dataStructure) {
+        read(path, (agency, account, balanceCents, ownerCpf) -> dataStructure.add(new BankAccount(
+                agency,
+                account,
+                balanceCents / 100.0,
+                new Cpf(ownerCpf)
+        )));
+    }
+
+    public static void read(Path path, AccountSink sink) {
+        Objects.requireNonNull(sink);
+        var reader = new MappedAccountReader();
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(size - position, MAX_MAPPING);
+                reader.buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                reader.windowStart = position;
+                int consumed = reader.parse(position + length == size, sink);
+                if (consumed == 0) throw new FileProcessorException("Line too long in file: " + path);
+                position += consumed;
+            }
+        } catch (IOException e) {
+            throw new FileProcessorException("Error while processing file: " + path, e);
+        }
+    }
+
+    /**
+     * Parse every complete line of the current mapping.
+     *
+     * @param last whether the mapping goes until the end of the file, so the last line doesn't need a line break
+     * @param sink the sink of the accounts
+     * @return the number of bytes consumed, which is the start of the first incomplete line
+     */
+    private int parse(boolean last, AccountSink sink) {
+        int limit = this.buffer.limit();
+        int lineStart = 0;
+
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && this.buffer.get(lineEnd) != '\n') lineEnd++;
+            if (lineEnd == limit && !last) break;
+
+            int contentEnd = lineEnd > lineStart && this.buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            this.cursor = lineStart;
+            long agency = this.parseLong(contentEnd);
+            this.skipSeparator(contentEnd);
+            long account = this.parseLong(contentEnd);
+            this.skipSeparator(contentEnd);
+            long balanceCents = this.parseCents(contentEnd);
+            this.skipSeparator(contentEnd);
+            long ownerCpf = this.parseLong(contentEnd);
+            if (this.cursor < contentEnd) throw new FileProcessorException("Unexpected extra field at byte " + this.position());
+            sink.accept(agency, account, balanceCents, ownerCpf);
+
+            lineStart = Math.min(lineEnd + 1, limit);
+        }
+
+        return lineStart;
+    }
+
+    /**
+     * Parse the digits from the cursor until the next separator or the end of the line, and leave the cursor on it.
+     */
+    private long parseLong(int end) {
+        long value = 0;
+        int digits = 0;
+        while (this.cursor < end && this.buffer.get(this.cursor) != ';') {
+            value = this.append(value, this.buffer.get(this.cursor++));
+            digits++;
+        }
+        if (digits == 0) throw new FileProcessorException("Missing field at byte " + this.position());
+        return value;
+    }
+
+    /**
+     * Parse a decimal number with up to two decimal places as a number of cents, and leave the cursor on the separator.
+     */
+    private long parseCents(int end) {
+        boolean negative = this.cursor < end && this.buffer.get(this.cursor) == '-';
+        if (negative) this.cursor++;
+
+        long value = 0;
+        int digits = 0;
+        int decimals = -1;
+        while (this.cursor < end && this.buffer.get(this.cursor) != ';') {
+            byte b = this.buffer.get(this.cursor++);
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (decimals >= 0 && ++decimals > 2) throw new FileProcessorException("Balance with more than two decimal places at byte " + this.position());
+            value = this.append(value, b);
+            digits++;
+        }
+        if (digits == 0) throw new FileProcessorException("Missing field at byte " + this.position());
+
+        for (int i = Math.max(decimals, 0); i < 2; i++) {
+            value = this.append(value, (byte) '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private void skipSeparator(int end) {
+        if (this.cursor == end) throw new FileProcessorException("Missing field at byte " + this.position());
+        this.cursor++;
+    }
+
+    // value * 10 + digit, rejecting the numbers that don't fit in a long
+    private long append(long value, byte b) {
+        int digit = this.digit(b);
+        if (value > (Long.MAX_VALUE - digit) / 10) throw new FileProcessorException("Number too large at byte " + (this.position() - 1));
+        return value * 10 + digit;
+    }
+
+    private int digit(byte b) {
+        if (b < '0' || b > '9') throw new FileProcessorException("Unexpected character '" + (char) b + "' at byte " + (this.position() - 1));
+        return b - '0';
+    }
+
+    // position of the cursor in the file
+    private long position() {
+        return this.windowStart + this.cursor;
+    }
+}
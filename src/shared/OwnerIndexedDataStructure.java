@@ -0,0 +1,390 @@
+package shared;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Bank account structure with a secondary index by owner CPF
+ * </h2>
+ *
+ * <p>
+ * Every structure of this project orders the bank accounts by agency and account, so finding the accounts of a CPF
+ * means scanning all of them. This class wraps any {@link DataStructure} of bank accounts, keeps its primary order, and
+ * maintains an index CPF -> accounts on every {@link #add(BankAccount)}, {@link #remove(BankAccount)} and
+ * {@link #clear()}, so the accounts of a CPF are found in O(1) on average.
+ * </p>
+ *
+ * <p>
+ * The index has no per-CPF lists. The CPFs are the primitive keys of an open addressing table (linear probing, like
+ * {@code hash.LongHashTable}) that stores the first and the last slot of each group. The accounts are kept in a slot
+ * array, and each slot points to the next slot of the same group in a parallel {@code int[]}. The slots freed by the
+ * removes are reused through a free list. Loading the index only allocates these arrays, and the accounts of a CPF are
+ * returned in insertion order.
+ * </p>
+ *
+ * <p>
+ * A second table of the same kind, hashed by {@link BankAccount#primaryKey()}, gives the slot of each account. An
+ * account is equal to another one with the same agency and account, whatever its owner, so {@link #remove(BankAccount)}
+ * finds the stored account, and its group, with a single lookup.
+ * </p>
+ *
+ * <p>
+ * Like the structure it wraps, this class is not thread-safe.
+ * </p>
+ */
+public class OwnerIndexedDataStructure implements DataStructure<BankAccount> {
+    private static final int DEFAULT_SIZE = 16;
+
+    // linear probing degrades fast above this load factor
+    private static final double LOAD_FACTOR = 0.5;
+
+    // 2^64 / golden ratio, used to spread the keys over the table (fibonacci hashing)
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    // end of a chain of slots, and mark of an empty position of the table
+    private static final int NONE = -1;
+
+    private final DataStructure<BankAccount> dataStructure;
+
+    // index table: owner CPF -> first and last slot of its accounts
+    private long[] owners;
+    private int[] firstSlots;
+    private int[] lastSlots;
+    private int shift;
+    private int threshold;
+    private int groups;
+
+    // account table: slot of each account, hashed by its primary key
+    private int[] accountSlots;
+    private int accountShift;
+    private int accountThreshold;
+
+    // slots: the accounts and the next slot of the same group (or of the free list)
+    private BankAccount[] accounts;
+    private int[] nextSlots;
+    private int usedSlots;
+    private int freeSlot;
+
+    public OwnerIndexedDataStructure(DataStructure<BankAccount> dataStructure, int expectedSize) {
+        if (Objects.isNull(dataStructure)) throw new IllegalArgumentException("Data structure cannot be null");
+        if (!dataStructure.isEmpty()) throw new IllegalArgumentException("Data structure must be empty");
+
+        this.dataStructure = dataStructure;
+        int slots = Math.max(expectedSize, DEFAULT_SIZE);
+        this.accounts = new BankAccount[slots];
+        this.nextSlots = new int[slots];
+        this.freeSlot = NONE;
+        this.allocate(tableLengthFor(slots));
+        this.allocateAccounts(tableLengthFor(slots));
+    }
+
+    public OwnerIndexedDataStructure(DataStructure<BankAccount> dataStructure) {
+        this(dataStructure, DEFAULT_SIZE);
+    }
+
+    /**
+     * @return the wrapped data structure, which must not be changed directly or the index gets out of date
+     */
+    public DataStructure<BankAccount> dataStructure() {
+        return this.dataStructure;
+    }
+
+    @Override
+    public boolean add(BankAccount data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        if (!this.dataStructure.add(data)) return false;
+
+        if (this.size() > this.accountThreshold) this.growAccounts();
+        int slot = this.newSlot(data);
+        this.accountSlots[this.emptyAccountIndex(data)] = slot;
+
+        long owner = data.ownerCpf().number();
+        int index = this.indexOf(owner);
+        if (this.firstSlots[index] == NONE) {
+            if (this.groups + 1 > this.threshold) {
+                this.grow();
+                index = this.indexOf(owner);
+            }
+            this.owners[index] = owner;
+            this.firstSlots[index] = slot;
+            this.groups++;
+        } else {
+            this.nextSlots[this.lastSlots[index]] = slot;
+        }
+        this.lastSlots[index] = slot;
+        return true;
+    }
+
+    /**
+     * Remove the account from the wrapped structure and from the index. An account is found by its agency and account,
+     * so the given one may have another owner than the stored one; the stored one is found in the account table, and
+     * removed from the group of its own owner.
+     *
+     * @throws IllegalStateException if the index and the wrapped structure don't agree, because the structure was
+     *                               changed directly
+     */
+    @Override
+    public boolean remove(BankAccount data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        int accountIndex = this.accountIndexOf(data);
+        int slot = this.accountSlots[accountIndex];
+        if (slot == NONE) return false;
+
+        if (!this.dataStructure.remove(data)) throw new IllegalStateException("Account indexed but not in the data structure: " + data);
+
+        int index = this.indexOf(this.accounts[slot].ownerCpf().number());
+        int previous = NONE;
+        for (int current = this.firstSlots[index]; current != slot; current = this.nextSlots[current]) {
+            previous = current;
+        }
+
+        int next = this.nextSlots[slot];
+        if (previous == NONE) {
+            this.firstSlots[index] = next;
+        } else {
+            this.nextSlots[previous] = next;
+        }
+        if (this.lastSlots[index] == slot) this.lastSlots[index] = previous;
+        this.deleteAccountAt(accountIndex);
+        this.freeSlot(slot);
+
+        if (this.firstSlots[index] == NONE) {
+            this.deleteAt(index);
+            this.groups--;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return this.dataStructure.size();
+    }
+
+    @Override
+    public boolean contains(BankAccount data) {
+        return this.dataStructure.contains(data);
+    }
+
+    @Override
+    public void clear() {
+        this.dataStructure.clear();
+        Arrays.fill(this.firstSlots, NONE);
+        Arrays.fill(this.accountSlots, NONE);
+        Arrays.fill(this.accounts, 0, this.usedSlots, null);
+        this.groups = 0;
+        this.usedSlots = 0;
+        this.freeSlot = NONE;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.dataStructure.isEmpty();
+    }
+
+    /**
+     * Iterate the accounts in the order of the wrapped data structure.
+     */
+    @Override
+    public void forEach(Consumer<BankAccount> consumer) {
+        this.dataStructure.forEach(consumer);
+    }
+
+    /**
+     * <h2>
+     * Accounts of an owner
+     * </h2>
+     *
+     * <p>
+     * Applies the consumer to the accounts of the given CPF, in insertion order, with a single lookup in the index.
+     * </p>
+     *
+     * @param owner    the CPF of the owner
+     * @param consumer the function applied to each account of the owner
+     */
+    public void forEachOfOwner(Cpf owner, Consumer<BankAccount> consumer) {
+        if (Objects.isNull(owner)) throw new IllegalArgumentException("Data cannot be null");
+
+        for (int slot = this.firstSlots[this.indexOf(owner.number())]; slot != NONE; slot = this.nextSlots[slot]) {
+            consumer.accept(this.accounts[slot]);
+        }
+    }
+
+    /**
+     * @param owner the CPF of the owner
+     * @return true if the owner has at least one account
+     */
+    public boolean hasAccounts(Cpf owner) {
+        if (Objects.isNull(owner)) throw new IllegalArgumentException("Data cannot be null");
+        return this.firstSlots[this.indexOf(owner.number())] != NONE;
+    }
+
+    /**
+     * @return the number of distinct owners with at least one account
+     */
+    public int ownerCount() {
+        return this.groups;
+    }
+
+    private int newSlot(BankAccount data) {
+        int slot;
+        if (this.freeSlot != NONE) {
+            slot = this.freeSlot;
+            this.freeSlot = this.nextSlots[slot];
+        } else {
+            if (this.usedSlots == this.accounts.length) {
+                this.accounts = Arrays.copyOf(this.accounts, this.usedSlots * 2);
+                this.nextSlots = Arrays.copyOf(this.nextSlots, this.usedSlots * 2);
+            }
+            slot = this.usedSlots++;
+        }
+        this.accounts[slot] = data;
+        this.nextSlots[slot] = NONE;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        this.accounts[slot] = null;
+        this.nextSlots[slot] = this.freeSlot;
+        this.freeSlot = slot;
+    }
+
+    private static int tableLengthFor(int expectedSize) {
+        int length = Integer.highestOneBit(Math.max((int) Math.ceil(expectedSize / LOAD_FACTOR), 2) - 1) << 1;
+        if (length <= 0) throw new IllegalArgumentException("Table size too large: " + expectedSize);
+        return length;
+    }
+
+    private static int hash(long key, int shift) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    /**
+     * Probe the table from the home position of the owner until the owner or an empty position is found.
+     */
+    private int indexOf(long owner) {
+        int mask = this.owners.length - 1;
+        int index = hash(owner, this.shift);
+        while (this.firstSlots[index] != NONE && this.owners[index] != owner) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Delete the group at the given position, shifting back the following groups of the cluster, the same way as
+     * {@code hash.LongHashTable}.
+     */
+    private void deleteAt(int index) {
+        int mask = this.owners.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (this.firstSlots[next] != NONE) {
+            int home = hash(this.owners[next], this.shift);
+            // the group can move to the hole if its home position is not in the cyclic range (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.owners[hole] = this.owners[next];
+                this.firstSlots[hole] = this.firstSlots[next];
+                this.lastSlots[hole] = this.lastSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        this.firstSlots[hole] = NONE;
+    }
+
+    /**
+     * Probe the account table for an account equal to the given one. The structures that keep duplicated accounts have
+     * more than one, then the one of the same owner is preferred.
+     *
+     * @return the position of the account in the table, or of the empty position that ends its cluster
+     */
+    private int accountIndexOf(BankAccount data) {
+        int mask = this.accountSlots.length - 1;
+        int index = hash(data.primaryKey(), this.accountShift);
+        int equal = NONE;
+        for (; this.accountSlots[index] != NONE; index = (index + 1) & mask) {
+            var account = this.accounts[this.accountSlots[index]];
+            if (account.compareTo(data) != 0) continue;
+            if (account.ownerCpf().equals(data.ownerCpf())) return index;
+            if (equal == NONE) equal = index;
+        }
+        return equal == NONE ? index : equal;
+    }
+
+    private int emptyAccountIndex(BankAccount data) {
+        int mask = this.accountSlots.length - 1;
+        int index = hash(data.primaryKey(), this.accountShift);
+        while (this.accountSlots[index] != NONE) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Delete the slot at the given position of the account table, shifting back the following ones like
+     * {@link #deleteAt(int)}.
+     */
+    private void deleteAccountAt(int index) {
+        int mask = this.accountSlots.length - 1;
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (this.accountSlots[next] != NONE) {
+            int home = hash(this.accounts[this.accountSlots[next]].primaryKey(), this.accountShift);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.accountSlots[hole] = this.accountSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        this.accountSlots[hole] = NONE;
+    }
+
+    private void allocate(int length) {
+        this.owners = new long[length];
+        this.firstSlots = new int[length];
+        this.lastSlots = new int[length];
+        Arrays.fill(this.firstSlots, NONE);
+        this.shift = Long.numberOfLeadingZeros(length - 1L);
+        this.threshold = (int) (length * LOAD_FACTOR);
+    }
+
+    private void grow() {
+        var oldOwners = this.owners;
+        var oldFirstSlots = this.firstSlots;
+        var oldLastSlots = this.lastSlots;
+        this.allocate(oldOwners.length * 2);
+
+        for (int i = 0; i < oldOwners.length; i++) {
+            if (oldFirstSlots[i] != NONE) {
+                int index = this.indexOf(oldOwners[i]);
+                this.owners[index] = oldOwners[i];
+                this.firstSlots[index] = oldFirstSlots[i];
+                this.lastSlots[index] = oldLastSlots[i];
+            }
+        }
+    }
+
+    private void allocateAccounts(int length) {
+        this.accountSlots = new int[length];
+        Arrays.fill(this.accountSlots, NONE);
+        this.accountShift = Long.numberOfLeadingZeros(length - 1L);
+        this.accountThreshold = (int) (length * LOAD_FACTOR);
+    }
+
+    private void growAccounts() {
+        var oldAccountSlots = this.accountSlots;
+        this.allocateAccounts(oldAccountSlots.length * 2);
+
+        for (int slot : oldAccountSlots) {
+            if (slot != NONE) this.accountSlots[this.emptyAccountIndex(this.accounts[slot])] = slot;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package shared;
+
+import metrics.CountingDataStructure;
+import metrics.InstrumentedDataStructure;
+import metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Parallel pipeline of the reports
+ * </h2>
+ *
+ * <p>
+ * Each report comes from a pipeline of stages: the files are parsed (ingest), the records are loaded into the data
+ * structure of the scenario and sorted if the scenario needs it (sort), and the accounts are grouped by CPF and written
+ * to the report (group and write, streamed by {@link GroupProcessor}). The stages are chained as a graph of
+ * {@link CompletableFuture}s, so every stage starts as soon as the stages it depends on are done:
+ * </p>
+ *
+ * <pre>
+ * parse CPF.txt ------> load and sort the CPFs of the scenario ----------\
+ * parse conta500.txt -> load and sort the accounts of the scenario ------> group and write resultado_scenario500.txt
+ * </pre>
+ *
+ * <p>
+ * Each file is parsed only once, in chunks that are parsed in parallel by
+ * {@link FileProcessor#parseFileParallel(String, java.util.function.Function)}, and its records are loaded into the
+ * structures of every scenario. The account files that share a CPF file, like the ones that come with the project,
+ * also share the CPF structure of each scenario. All the stages run on a fixed pool with one thread per core, and
+ * {@link #run()} only returns when every report is written, throwing the first failure of any stage. The whole suite
+ * takes about as long as its slowest pipeline.
+ * </p>
+ *
+ * <p>
+ * When {@link Metrics#ENABLED} is true, the structures are loaded and grouped through an
+ * {@link InstrumentedDataStructure} (the sort still gets the structure itself), the CPF structures also count the
+ * comparisons of their CPFs through a {@link CountingDataStructure}, and the summary of the metrics is written to
+ * {@value #METRICS_FILE} after the reports.
+ * </p>
+ */
+public class ReportPipeline {
+
+    /**
+     * Sort of the scenarios whose data structure is already ordered, or doesn't need to be.
+     */
+    public static final Consumer<DataStructure<?>> NO_SORT = structure -> {
+    };
+
+    public static final String METRICS_FILE = "metricas.txt";
+
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final List<AccountFileOptions> files;
+
+    public ReportPipeline(List<AccountFileOptions> files) {
+        if (Objects.isNull(files) || files.isEmpty()) throw new IllegalArgumentException("Files cannot be empty");
+        this.files = List.copyOf(files);
+    }
+
+    public ReportPipeline() {
+        this(AccountFileOptions.bundled());
+    }
+
+    /**
+     * <h2>
+     * Add a scenario to the pipeline
+     * </h2>
+     *
+     * @param name     the name of the scenario in the report files, like {@code avl} in {@code resultado_avl500.txt}
+     * @param title    the title of the reports
+     * @param factory  creates the data structures of the scenario, one for the CPFs and one for each account file
+     * @param sort     the sort applied to each structure after it is loaded, or {@link #NO_SORT}
+     * @return this pipeline
+     */
+    public ReportPipeline scenario(String name, String title, StructureFactory factory, Consumer<DataStructure<?>> sort) {
+        this.scenarios.add(new Scenario(name, title, factory, sort));
+        return this;
+    }
+
+    public ReportPipeline scenario(String name, String title, StructureFactory factory) {
+        return this.scenario(name, title, factory, NO_SORT);
+    }
+
+    /**
+     * Run every pipeline and wait for all the reports to be written.
+     *
+     * @throws java.util.concurrent.CompletionException with the first failure of any stage
+     */
+    public void run() {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            Map<String, CompletableFuture<List<Cpf>>> cpfs = new HashMap<>();
+            Map<AccountFileOptions, CompletableFuture<List<BankAccount>>> accounts = new EnumMap<>(AccountFileOptions.class);
+            for (var file : this.files) {
+                cpfs.computeIfAbsent(file.getCpfFileName(), cpfFile -> CompletableFuture.supplyAsync(() -> distinct(FileProcessor.parseFileParallel(cpfFile, Cpf::new)), executor));
+                accounts.put(file, CompletableFuture.supplyAsync(() -> FileProcessor.parseFileParallel(file.getFileName(), BankAccount::fromLine), executor));
+            }
+
+            var reports = new ArrayList<CompletableFuture<Void>>();
+            for (var scenario : this.scenarios) {
+                Map<String, CompletableFuture<DataStructure<Cpf>>> cpfStructures = new HashMap<>();
+                cpfs.forEach((cpfFile, records) -> cpfStructures.put(cpfFile, records.thenApplyAsync(cpfRecords -> {
+                    DataStructure<Cpf> structure;
+                    DataStructure<?> sorted;
+                    if (Metrics.ENABLED) {
+                        var counting = new CountingDataStructure<Cpf>(scenario.factory().create());
+                        structure = counting;
+                        sorted = counting.dataStructure();
+                    } else {
+                        structure = scenario.factory().create();
+                        sorted = structure;
+                    }
+                    var cpfStructure = InstrumentedDataStructure.of(scenario.name() + " " + cpfFile, structure);
+                    cpfRecords.forEach(cpfStructure::add);
+                    scenario.sort().accept(sorted);
+                    return cpfStructure;
+                }, executor)));
+
+                for (var file : this.files) {
+                    CompletableFuture<DataStructure<BankAccount>> accountStructure = accounts.get(file).thenApplyAsync(records -> {
+                        DataStructure<BankAccount> structure = scenario.factory().create();
+                        var handler = new BankAccountHandler(InstrumentedDataStructure.of(scenario.name() + " " + file.getFileName(), structure), file);
+                        records.forEach(handler::addRecord);
+                        scenario.sort().accept(structure);
+                        return handler.dataStructure();
+                    }, executor);
+
+                    var outputFileName = "resultado_" + scenario.name() + file.getRows() + ".txt";
+                    reports.add(cpfStructures.get(file.getCpfFileName()).thenAcceptBothAsync(accountStructure, (cpfData, accountData) ->
+                            new GroupProcessor(accountData)
+                                    .processHashJoin(cpfData::forEach, accountData::forEach, scenario.title(), outputFileName), executor));
+                }
+            }
+
+            CompletableFuture.allOf(reports.toArray(CompletableFuture[]::new)).join();
+            if (Metrics.ENABLED) Metrics.writeSummary(METRICS_FILE);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The CPFs without the repeated ones, in the order of their first line. The repeated CPFs are dropped once here
+     * instead of checking {@code contains} before each add into the structure of every scenario, which is a scan of the
+     * whole structure for the AVL tree and the linked list, so quadratic on the generated CPF files.
+     */
+    private static List<Cpf> distinct(List<Cpf> cpfs) {
+        var seen = new HashSet<Cpf>(cpfs.size() * 2);
+        return cpfs.stream().filter(seen::add).toList();
+    }
+
+    /**
+     * Creates an empty data structure of any element type, like {@code AvlTree::new}.
+     */
+    @FunctionalInterface
+    public interface StructureFactory {
+        <T extends Comparable<T>> DataStructure<T> create();
+    }
+
+    private record Scenario(String name, String title, StructureFactory factory, Consumer<DataStructure<?>> sort) {
+    }
+}
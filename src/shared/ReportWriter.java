@@ -0,0 +1,232 @@
+package shared;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <h2>
+ * Streaming UTF-8 report writer
+ * </h2>
+ *
+ * <p>
+ * Writes straight to a {@link FileChannel} through a fixed-size byte buffer that is reused for the whole file, so the
+ * memory used by a report doesn't depend on its size: the content is flushed to the channel every time the buffer gets
+ * full, instead of being kept in a {@link StringBuilder} until the end. Text is always encoded in UTF-8, and the
+ * numbers are formatted directly into the buffer, without creating a {@link String} for each of them.
+ * </p>
+ *
+ * <p>
+ * The methods return the writer itself, so the calls can be chained. An {@link IOException} of the channel is thrown as
+ * an {@link UncheckedIOException}, so the writer can be used inside the consumers of the data structures.
+ * </p>
+ */
+public class ReportWriter implements AutoCloseable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // longest decimal representation of a long: a sign and 19 digits
+    private static final int MAX_LONG_LENGTH = 20;
+
+    // values lower than this, with up to two decimal places, are formatted without Double.toString
+    private static final double FAST_DOUBLE_LIMIT = 1e7;
+
+    private final WritableByteChannel channel;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+
+    /**
+     * Write to any channel, like a chunk of a file being built in memory. Closing the writer closes the channel.
+     *
+     * @param channel    the channel the content is flushed to
+     * @param bufferSize the size of the buffer, in bytes
+     */
+    public ReportWriter(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < MAX_LONG_LENGTH * 2) throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+    }
+
+    public ReportWriter(Path path, int bufferSize) {
+        this(open(path), bufferSize);
+    }
+
+    public ReportWriter(Path path) {
+        this(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Open a report in the {@code resultados} directory, like {@link FileWriteable}, and write its title.
+     *
+     * @param fileName the name of the report file
+     * @param title    the title of the report
+     * @return the writer, positioned after the title
+     */
+    public static ReportWriter open(String fileName, String title) {
+        var writer = new ReportWriter(Paths.get("resultados", fileName));
+        writer.write(title);
+        return writer;
+    }
+
+    private static FileChannel open(Path path) {
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while opening file: " + path, e);
+        }
+    }
+
+    /**
+     * Write bytes that are already encoded, like the fixed labels of a report.
+     */
+    public ReportWriter write(byte[] data) {
+        if (data.length > this.bytes.length - this.position) {
+            this.flush();
+            if (data.length > this.bytes.length) {
+                this.writeToChannel(ByteBuffer.wrap(data));
+                return this;
+            }
+        }
+        System.arraycopy(data, 0, this.bytes, this.position, data.length);
+        this.position += data.length;
+        return this;
+    }
+
+    /**
+     * Write a text in UTF-8. ASCII characters are copied straight to the buffer.
+     */
+    public ReportWriter write(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                // not ASCII: let the encoder deal with the rest of the text
+                return this.write(text.substring(i).getBytes(StandardCharsets.UTF_8));
+            }
+            if (this.position == this.bytes.length) this.flush();
+            this.bytes[this.position++] = (byte) c;
+        }
+        return this;
+    }
+
+    public ReportWriter write(char c) {
+        if (c >= 0x80) return this.write(String.valueOf(c));
+
+        if (this.position == this.bytes.length) this.flush();
+        this.bytes[this.position++] = (byte) c;
+        return this;
+    }
+
+    public ReportWriter writeLong(long value) {
+        return this.writeLong(value, 1);
+    }
+
+    /**
+     * Write a long in decimal, with zeros on the left up to the given number of digits, like the 11 digits of a CPF.
+     *
+     * @param value     the number to be written
+     * @param minDigits the minimum number of digits
+     * @return this writer
+     */
+    public ReportWriter writeLong(long value, int minDigits) {
+        if (minDigits < 1 || minDigits >= MAX_LONG_LENGTH) throw new IllegalArgumentException("Invalid number of digits: " + minDigits);
+        // the only long whose absolute value doesn't fit in a long
+        if (value == Long.MIN_VALUE) return this.write(Long.toString(value));
+
+        if (this.bytes.length - this.position < MAX_LONG_LENGTH) this.flush();
+
+        if (value < 0) {
+            this.bytes[this.position++] = '-';
+            value = -value;
+        }
+
+        int end = this.position + Math.max(digits(value), minDigits);
+        for (int i = end - 1; i >= this.position; i--) {
+            this.bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        this.position = end;
+        return this;
+    }
+
+    /**
+     * <h2>
+     * Write a double with the same text as {@link Double#toString(double)}
+     * </h2>
+     *
+     * <p>
+     * Balances have at most two decimal places, and for these values lower than 10 million {@code Double.toString} gives
+     * the integer part, a dot and the decimal places without trailing zeros (at least one). They are formatted here from
+     * the number of cents. Any other value, like a sum with rounding errors, falls back to {@code Double.toString}.
+     * </p>
+     *
+     * @param value the number to be written
+     * @return this writer
+     */
+    public ReportWriter writeDouble(double value) {
+        long cents = Math.round(value * 100);
+        boolean negativeZero = value == 0 && Double.doubleToRawLongBits(value) != 0;
+        if (Math.abs(value) >= FAST_DOUBLE_LIMIT || cents / 100.0 != value || negativeZero) {
+            return this.write(Double.toString(value));
+        }
+
+        if (cents < 0) {
+            this.write('-');
+            cents = -cents;
+        }
+        this.writeLong(cents / 100).write('.');
+
+        long decimals = cents % 100;
+        if (decimals % 10 == 0) return this.writeLong(decimals / 10);
+        return this.writeLong(decimals, 2);
+    }
+
+    /**
+     * Write the content of the buffer to the channel, so the buffer can be reused.
+     */
+    public void flush() {
+        if (this.position == 0) return;
+
+        this.buffer.clear().limit(this.position);
+        this.writeToChannel(this.buffer);
+        this.position = 0;
+    }
+
+    @Override
+    public void close() {
+        try (this.channel) {
+            this.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while closing the report", e);
+        }
+    }
+
+    private void writeToChannel(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                this.channel.write(source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error while writing the report", e);
+        }
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -1,5 +1,9 @@
 package shared;
 
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * <h2>
@@ -16,4 +20,143 @@ package shared;
 public interface Tree<T extends Comparable<T>> extends DataStructure<T> {
     T traversal(T data);
 
+    /**
+     * <h2>
+     * Replace the content of the tree with the given elements
+     * </h2>
+     *
+     * <p>
+     * The elements must be in ascending order, like the output of a sorted {@code SortedLinkedList} or of the
+     * {@code forEach} of another tree. This default implementation just adds them one by one; the implementations that
+     * can build a balanced tree directly from sorted input do it in linear time.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    default void bulkLoad(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+
+        this.clear();
+        for (T data : sorted) {
+            this.add(data);
+        }
+    }
+
+    /**
+     * <h2>
+     * Add a sorted batch of elements to the tree
+     * </h2>
+     *
+     * <p>
+     * The elements must be in ascending order. This default implementation adds them one by one; the implementations
+     * that support it merge the batch with the elements of the tree and rebuild it in linear time.
+     * </p>
+     *
+     * @param sorted the elements, in ascending order
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    default void bulkMerge(T[] sorted) {
+        TreeArguments.requireSorted(sorted, false);
+
+        for (T data : sorted) {
+            this.add(data);
+        }
+    }
+
+    /**
+     * <h2>
+     * Rank of an element
+     * </h2>
+     *
+     * <p>
+     * Number of elements of the tree strictly lower than the given one, which is also the position where it is (or would
+     * be) in the in-order sequence. This default implementation scans the whole tree; the trees that keep the size of
+     * each subtree answer it in O(log n).
+     * </p>
+     *
+     * @param data the element to be ranked, it doesn't need to be in the tree
+     * @return the number of elements lower than the given one
+     */
+    default int rank(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        var rank = new AtomicInteger();
+        this.forEach(value -> {
+            if (value.compareTo(data) < 0) rank.incrementAndGet();
+        });
+        return rank.get();
+    }
+
+    /**
+     * <h2>
+     * Select the k-th element
+     * </h2>
+     *
+     * <p>
+     * The element at the given position of the in-order sequence, starting at 0, so {@code select(0)} is the lowest
+     * element and {@code select(size() - 1 - k)} is the k-th largest. This default implementation visits the whole tree
+     * with {@code forEach}, which can't stop at the position, so it is O(n); the trees that keep the size of each subtree
+     * answer it in O(log n).
+     * </p>
+     *
+     * @param k the position of the element, from 0 to {@code size() - 1}
+     * @return the k-th lowest element
+     * @throws IllegalArgumentException if k is out of bounds
+     */
+    default T select(int k) {
+        if (k < 0 || k >= this.size()) throw new IllegalArgumentException("Index out of bounds");
+
+        var position = new AtomicInteger();
+        var selected = new AtomicReference<T>();
+        this.forEach(value -> {
+            if (position.getAndIncrement() == k) selected.set(value);
+        });
+        return selected.get();
+    }
+
+    /**
+     * <h2>
+     * Range query
+     * </h2>
+     *
+     * <p>
+     * Apply the consumer to every element between {@code from} and {@code to}, both inclusive, in ascending order. This
+     * default implementation filters the whole tree; the balanced trees skip the subtrees out of the range and run in
+     * O(log n + k), where k is the number of elements in the range.
+     * </p>
+     *
+     * @param from     the lower bound, inclusive
+     * @param to       the upper bound, inclusive
+     * @param consumer the function applied to each element in the range
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    default void range(T from, T to, Consumer<T> consumer) {
+        TreeArguments.requireRange(from, to);
+
+        this.forEach(value -> {
+            if (value.compareTo(from) >= 0 && value.compareTo(to) <= 0) consumer.accept(value);
+        });
+    }
+
+    /**
+     * <h2>
+     * Count the elements in a range
+     * </h2>
+     *
+     * <p>
+     * Number of elements between {@code from} and {@code to}, both inclusive. The trees that keep the size of each
+     * subtree answer it in O(log n), without visiting the elements in the range.
+     * </p>
+     *
+     * @param from the lower bound, inclusive
+     * @param to   the upper bound, inclusive
+     * @return the number of elements in the range
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    default int countInRange(T from, T to) {
+        var count = new AtomicInteger();
+        this.range(from, to, value -> count.incrementAndGet());
+        return count.get();
+    }
 }
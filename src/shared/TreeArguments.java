@@ -0,0 +1,54 @@
+package shared;
+
+import java.util.Objects;
+
+/**
+ * <h2>
+ * Argument checks of the tree implementations
+ * </h2>
+ *
+ * <p>
+ * Shared by the default methods of {@link Tree} and by the trees that override them, which live in their own packages,
+ * so this class can't be package-private. It is not meant to be used outside of the tree implementations.
+ * </p>
+ */
+public final class TreeArguments {
+
+    private TreeArguments() {
+    }
+
+    /**
+     * Check the input of {@link Tree#bulkLoad(Comparable[])} and {@link Tree#bulkMerge(Comparable[])}.
+     *
+     * @param sorted   the elements to check
+     * @param distinct whether equal elements are rejected, for the trees that don't keep duplicated elements
+     * @throws IllegalArgumentException if the elements are not in ascending order or any of them is null
+     */
+    public static <T extends Comparable<T>> void requireSorted(T[] sorted, boolean distinct) {
+        if (Objects.isNull(sorted)) throw new IllegalArgumentException("Data cannot be null");
+
+        int lowestComparison = distinct ? 0 : 1;
+        for (int i = 0; i < sorted.length; i++) {
+            if (Objects.isNull(sorted[i])) throw new IllegalArgumentException("Data cannot be null");
+            if (i > 0 && sorted[i - 1].compareTo(sorted[i]) >= lowestComparison) {
+                throw new IllegalArgumentException(distinct ? "Data must be in strictly ascending order" : "Data must be in ascending order");
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if any bound is null or {@code from} is greater than {@code to}
+     */
+    public static <T extends Comparable<T>> void requireRange(T from, T to) {
+        if (Objects.isNull(from) || Objects.isNull(to)) throw new IllegalArgumentException("Data cannot be null");
+        if (from.compareTo(to) > 0) throw new IllegalArgumentException("Range lower bound cannot be greater than the upper bound");
+    }
+
+    /**
+     * Array of the element type of a tree, for the sorted copies of its elements.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T extends Comparable<T>> T[] newArray(int length) {
+        return (T[]) new Comparable[length];
+    }
+}
@@ -0,0 +1,326 @@
+package skip_list;
+
+import shared.ConcurrentDataStructure;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <h2>
+ * Lock-free skip list
+ * </h2>
+ *
+ * <p>
+ * A sorted linked list with extra levels of links that skip over nodes: each node is in the bottom level and in each
+ * level above with probability 1/2, so a search goes down from the top level and visits O(log n) nodes. Every link is
+ * an {@link AtomicMarkableReference}, and a node is removed by first marking its links (logical removal) and then
+ * unlinking it with compare-and-set. No operation takes a lock, so several ingestion threads can build the same sorted
+ * index at the same time, and a thread that stops in the middle of an operation never blocks the others.
+ * </p>
+ *
+ * <p>
+ * The list is kept in ascending order, so the result of a concurrent load can be grouped in order without any sort
+ * step. {@link #forEach(Consumer)} and {@link #iterator()} are weakly consistent: they walk the bottom level, see every
+ * element present before the call and may or may not see concurrent changes.
+ * </p>
+ *
+ * <p>
+ * The list doesn't keep duplicated elements: {@link #add(Comparable)} returns false if an equal element is already in
+ * the list, so it is the same as {@link #addIfAbsent(Comparable)}.
+ * </p>
+ *
+ * @param <T> generic type
+ * @see <a href="https://en.wikipedia.org/wiki/Skip_list">Skip list</a>
+ * @see <a href="https://www.elsevier.com/books/the-art-of-multiprocessor-programming/herlihy/978-0-12-415950-1">The Art of Multiprocessor Programming, chapter 14</a>
+ */
+public class ConcurrentSkipList<T extends Comparable<T>> implements ConcurrentDataStructure<T> {
+
+    // with p = 1/2, 32 levels are enough for any int size
+    private static final int MAX_LEVEL = 32;
+
+    private final Node<T> tail = new Node<>(null, MAX_LEVEL - 1);
+    private volatile Node<T> head = this.newHead();
+    private final LongAdder size = new LongAdder();
+
+    // highest level used by a node, so the searches don't walk down the empty levels above it
+    private final AtomicInteger highestLevel = new AtomicInteger();
+
+    @Override
+    public boolean add(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        int topLevel = randomLevel();
+        if (this.highestLevel.get() < topLevel) this.highestLevel.accumulateAndGet(topLevel, Math::max);
+        Node<T>[] predecessors = newNodes();
+        Node<T>[] successors = newNodes();
+        boolean[] marked = {false};
+
+        while (true) {
+            if (this.find(data, predecessors, successors)) return false;
+
+            var node = new Node<>(data, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next[level].set(successors[level], false);
+            }
+
+            // the node is in the list as soon as it is linked in the bottom level
+            if (!predecessors[0].next[0].compareAndSet(successors[0], node, false, false)) continue;
+            this.size.increment();
+
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    var successor = successors[level];
+                    var current = node.next[level].get(marked);
+                    // the node is being removed by another thread, so there's no need to link the upper levels
+                    if (marked[0]) return true;
+                    if (current != successor && !node.next[level].compareAndSet(current, successor, false, false)) continue;
+
+                    if (predecessors[level].next[level].compareAndSet(successor, node, false, false)) break;
+
+                    this.find(data, predecessors, successors);
+                    if (successors[0] != node) return true;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addIfAbsent(T data) {
+        return this.add(data);
+    }
+
+    @Override
+    public boolean remove(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        Node<T>[] predecessors = newNodes();
+        Node<T>[] successors = newNodes();
+        boolean[] marked = {false};
+
+        if (!this.find(data, predecessors, successors)) return false;
+
+        var node = successors[0];
+        // mark the upper levels first, so the node is never reachable from above after leaving the bottom level
+        for (int level = node.topLevel; level >= 1; level--) {
+            var successor = node.next[level].get(marked);
+            while (!marked[0]) {
+                node.next[level].attemptMark(successor, true);
+                successor = node.next[level].get(marked);
+            }
+        }
+
+        var successor = node.next[0].get(marked);
+        while (true) {
+            // the thread that marks the bottom level is the one that removes the node
+            boolean removed = node.next[0].compareAndSet(successor, successor, false, true);
+            successor = node.next[0].get(marked);
+            if (removed) {
+                this.size.decrement();
+                // unlink the marked node
+                this.find(data, predecessors, successors);
+                return true;
+            }
+            if (marked[0]) return false;
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size.intValue();
+    }
+
+    /**
+     * <h2>
+     * Check if the data is in the list
+     * </h2>
+     *
+     * <p>
+     * Wait-free: it skips the marked nodes instead of unlinking them, so it never retries.
+     * </p>
+     *
+     * @param data the data to be searched
+     * @return true if the data is in the list
+     */
+    @Override
+    public boolean contains(T data) {
+        if (Objects.isNull(data)) throw new IllegalArgumentException("Data cannot be null");
+
+        boolean[] marked = {false};
+        Node<T> predecessor = this.head;
+        Node<T> current = null;
+        for (int level = this.highestLevel.get(); level >= 0; level--) {
+            current = predecessor.next[level].getReference();
+            while (true) {
+                var successor = current.next[level].get(marked);
+                while (marked[0]) {
+                    current = successor;
+                    successor = current.next[level].get(marked);
+                }
+                if (current != this.tail && current.data.compareTo(data) < 0) {
+                    predecessor = current;
+                    current = successor;
+                } else {
+                    break;
+                }
+            }
+        }
+        return current != this.tail && current.data.compareTo(data) == 0;
+    }
+
+    /**
+     * <h2>
+     * Remove all the elements
+     * </h2>
+     *
+     * <p>
+     * Replaces the head of the list, so it is not atomic with concurrent writers: elements added while the list is
+     * cleared may be lost.
+     * </p>
+     */
+    @Override
+    public void clear() {
+        this.head = this.newHead();
+        this.size.reset();
+        this.highestLevel.set(0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public void forEach(Consumer<T> consumer) {
+        this.iterator().forEachRemaining(consumer);
+    }
+
+    /**
+     * <h2>
+     * In-order iterator over the list
+     * </h2>
+     *
+     * @return a weakly consistent iterator of the elements in ascending order
+     */
+    public Iterator<T> iterator() {
+        return new BottomLevelIterator();
+    }
+
+    @Override
+    public String toString() {
+        var sb = new StringBuilder("[");
+        this.forEach(data -> {
+            if (sb.length() > 1) sb.append(", ");
+            sb.append(data);
+        });
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Search the position of the data in every level, unlinking the marked nodes found on the way. After it,
+     * {@code predecessors[level]} is the last node lower than the data and {@code successors[level]} is the node after
+     * it, in each level.
+     *
+     * @return true if the data is in the list, at {@code successors[0]}
+     */
+    private boolean find(T data, Node<T>[] predecessors, Node<T>[] successors) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node<T> predecessor = this.head;
+            Node<T> current = null;
+            for (int level = this.highestLevel.get(); level >= 0; level--) {
+                current = predecessor.next[level].getReference();
+                while (true) {
+                    var successor = current.next[level].get(marked);
+                    while (marked[0]) {
+                        if (!predecessor.next[level].compareAndSet(current, successor, false, false)) continue retry;
+                        current = successor;
+                        successor = current.next[level].get(marked);
+                    }
+                    if (current != this.tail && current.data.compareTo(data) < 0) {
+                        predecessor = current;
+                        current = successor;
+                    } else {
+                        break;
+                    }
+                }
+                predecessors[level] = predecessor;
+                successors[level] = current;
+            }
+            return current != this.tail && current.data.compareTo(data) == 0;
+        }
+    }
+
+    private Node<T> newHead() {
+        var node = new Node<T>(null, MAX_LEVEL - 1);
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            node.next[level].set(this.tail, false);
+        }
+        return node;
+    }
+
+    // one node for each level, for the predecessors and successors of a search
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T extends Comparable<T>> Node<T>[] newNodes() {
+        return new Node[MAX_LEVEL];
+    }
+
+    // highest level of a new node: level i with probability 1 / 2^(i + 1)
+    private static int randomLevel() {
+        return Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1)));
+    }
+
+    private class BottomLevelIterator implements Iterator<T> {
+        private final boolean[] marked = {false};
+        private Node<T> next;
+
+        BottomLevelIterator() {
+            this.next = this.skipMarked(head.next[0].getReference());
+        }
+
+        private Node<T> skipMarked(Node<T> node) {
+            while (node != tail) {
+                var successor = node.next[0].get(this.marked);
+                if (!this.marked[0]) return node;
+                node = successor;
+            }
+            return node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != tail;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == tail) throw new NoSuchElementException();
+            var data = this.next.data;
+            this.next = this.skipMarked(this.next.next[0].getReference());
+            return data;
+        }
+    }
+
+    private static class Node<T extends Comparable<T>> {
+        private final T data;
+        private final AtomicMarkableReference<Node<T>>[] next;
+        private final int topLevel;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(T data, int topLevel) {
+            this.data = data;
+            this.topLevel = topLevel;
+            this.next = new AtomicMarkableReference[topLevel + 1];
+            for (int level = 0; level <= topLevel; level++) {
+                this.next[level] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package sorting;
+
+/**
+ * <h2>
+ * Sorting algorithms over arrays
+ * </h2>
+ *
+ * <p>
+ * The sorts of {@link SortedLinkedList} copy the list into an array, sort the array with these methods and write the
+ * values back into the nodes. Working on the array gives O(1) access by index, while doing the same through the nodes
+ * costs a walk from the head for every access.
+ * </p>
+ */
+final class ArraySorts {
+
+    private ArraySorts() {
+    }
+
+    /**
+     * Quick sort of the given range, with the middle element as pivot. The recursion goes into the smaller partition and
+     * the bigger one is sorted in the loop, so the stack never grows more than O(log n).
+     *
+     * @param arr   array to be sorted
+     * @param left  first index of the range
+     * @param right last index of the range
+     * @param <T>   generic type
+     * @return the number of comparisons
+     */
+    static <T extends Comparable<T>> long quickSort(T[] arr, int left, int right) {
+        long comparisons = 0;
+        while (left < right) {
+            T pivot = arr[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                int scanStart = i;
+                int scanEnd = j;
+                while (arr[i].compareTo(pivot) < 0) i++;
+                while (arr[j].compareTo(pivot) > 0) j--;
+                // each scan compares every element it skips plus the one where it stops
+                comparisons += (i - scanStart + 1) + (scanEnd - j + 1);
+
+                if (i <= j) {
+                    T temp = arr[i];
+                    arr[i] = arr[j];
+                    arr[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (j - left < right - i) {
+                comparisons += quickSort(arr, left, j);
+                left = i;
+            } else {
+                comparisons += quickSort(arr, i, right);
+                right = j;
+            }
+        }
+        return comparisons;
+    }
+
+    /**
+     * Shell sort with the Knuth gap sequence (1, 4, 13, 40, ...).
+     *
+     * @param arr array to be sorted
+     * @param <T> generic type
+     * @return the number of comparisons
+     */
+    static <T extends Comparable<T>> long shellSort(T[] arr) {
+        long comparisons = 0;
+        int h = 1;
+        while (h < arr.length / 3) {
+            h = 3 * h + 1;
+        }
+
+        for (; h >= 1; h /= 3) {
+            for (int i = h; i < arr.length; i++) {
+                T temp = arr[i];
+                int j = i;
+                while (j >= h && arr[j - h].compareTo(temp) > 0) {
+                    arr[j] = arr[j - h];
+                    j -= h;
+                }
+                arr[j] = temp;
+                // one comparison for each shift, plus the one that stopped them if the start wasn't reached
+                comparisons += (i - j) / h + (j >= h ? 1 : 0);
+            }
+        }
+        return comparisons;
+    }
+}
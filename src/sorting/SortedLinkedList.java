@@ -1,19 +1,31 @@
 package sorting;
 
+import metrics.Measurable;
+import metrics.Metrics;
 import shared.DataStructure;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<T> {
+public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<T>, Measurable {
     private Node<T> head;
     private int size;
     private Node<T> tail;
 
+    // work done by the sorts, only counted when the metrics are enabled
+    private int sorts;
+    private long sortComparisons;
+    private long sortNodeHops;
+
     public SortedLinkedList() {
         this.head = null;
         this.tail = null;
@@ -133,6 +145,7 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
 
         if (this.head.data.compareTo(data) == 0) {
             this.head = this.head.next;
+            if (this.head == null) this.tail = null;
             this.size--;
             return true;
         }
@@ -141,6 +154,7 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
 
         while (current.next != null) {
             if (current.next.data.compareTo(data) == 0) {
+                if (current.next == this.tail) this.tail = current;
                 current.next = current.next.next;
                 this.size--;
                 return true;
@@ -176,64 +190,221 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
         return this.size;
     }
 
+    /**
+     * <h2>
+     * Sort the list with the quick sort algorithm
+     * </h2>
+     *
+     * <p>
+     * The list is copied into an array, sorted there and the values are written back into the same nodes, so the sort
+     * costs O(n log n) instead of walking the list from the head for every comparison.
+     * </p>
+     */
     public void quickSort() {
-        this.quickSort(0, this.size - 1);
+        var array = this.toArray();
+        long comparisons = ArraySorts.quickSort(array, 0, array.length - 1);
+        this.writeBack(array);
+        this.recordArraySort(comparisons);
     }
 
+    /**
+     * <h2>
+     * Sort the list with the quick sort algorithm using the fork/join framework
+     * </h2>
+     *
+     * <p>
+     * Same as {@link #quickSort()}, but the partitions of the array are sorted in parallel by the common pool.
+     * </p>
+     */
     public void quickSortAsync() {
+        this.quickSortAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <h2>
+     * Sort the list with the quick sort algorithm using the given fork/join pool
+     * </h2>
+     *
+     * <p>
+     * Same as {@link #quickSortAsync()}, with the parallelism of the given pool, and waits for the sort to finish.
+     * </p>
+     *
+     * @param pool the pool that sorts the partitions
+     * @throws IllegalArgumentException if the pool is null
+     */
+    public void quickSortAsync(ForkJoinPool pool) {
+        if (Objects.isNull(pool)) throw new IllegalArgumentException("Pool cannot be null");
+
         var task = new QuickSortMultiThreading<>(0, this.size - 1, this.toArray());
-        task.compute();
-        this.clear();
-        for (T t : task.arr) {
-            this.add(t);
-        }
+        long comparisons = pool.invoke(task);
+        this.writeBack(task.arr);
+        this.recordArraySort(comparisons);
     }
 
+    /**
+     * <h2>
+     * Sort the list with the shell sort algorithm
+     * </h2>
+     *
+     * <p>
+     * Like {@link #quickSort()}, the list is sorted in an array and the values are written back into the same nodes.
+     * </p>
+     */
     public void shellSort() {
-        int i;
-        int j;
-        int h;
-        T temp;
-        h = 1;
-        do {
-            h = 3 * h + 1;
-        } while (h < this.size);
+        var array = this.toArray();
+        long comparisons = ArraySorts.shellSort(array);
+        this.writeBack(array);
+        this.recordArraySort(comparisons);
+    }
+
+    /**
+     * <h2>
+     * Sort the list with a natural merge sort
+     * </h2>
+     *
+     * <p>
+     * Merge sort is the sort that fits a linked list: it only needs sequential access and it sorts by relinking the
+     * {@code next} pointers, so no array is allocated and no value is copied. This is the bottom-up natural variant: each
+     * pass splits the list into its existing ascending runs and merges them in pairs, until only one run is left. An
+     * already sorted list is done after a single pass, and in general it takes O(n log r) time, where r is the number of
+     * runs, with O(1) extra space.
+     * </p>
+     *
+     * <p>
+     * The sort is stable: equal elements keep their relative order.
+     * </p>
+     *
+     * @see <a href="https://en.wikipedia.org/wiki/Merge_sort#Natural_merge_sort">Natural merge sort</a>
+     */
+    public void mergeSort() {
+        if (Metrics.ENABLED) this.sorts++;
+        if (this.size < 2) return;
+
+        var sentinel = new Node<T>(null);
+        boolean merged;
+
         do {
-            h = h / 3;
-            for (i = h; i < this.size; i++) {
-                temp = this.get(i);
-                j = i;
-                while (this.get(j - h).compareTo(temp) > 0) {
-                    this.set(j, this.get(j - h));
-                    j = j - h;
-                    if (j < h) {
-                        break;
-                    }
+            merged = false;
+            Node<T> sortedTail = sentinel;
+            Node<T> rest = this.head;
+
+            while (rest != null) {
+                Node<T> first = rest;
+                Node<T> firstEnd = this.runEnd(first);
+                Node<T> second = firstEnd.next;
+
+                if (second == null) {
+                    // odd run out, it goes as it is to the end of this pass
+                    sortedTail.next = first;
+                    sortedTail = firstEnd;
+                    break;
                 }
-                this.set(j, temp);
-            }
-        } while (h != 1);
-    }
 
+                Node<T> secondEnd = this.runEnd(second);
+                rest = secondEnd.next;
+                firstEnd.next = null;
+                secondEnd.next = null;
 
-    private void quickSort(int left, int right) {
-        int pivot = (left + right) / 2;
-        int i = left;
-        int j = right;
+                sortedTail = this.merge(sortedTail, first, second);
+                merged = true;
+            }
 
-        while (i <= j) {
-            while (get(i).compareTo(get(pivot)) < 0) i++;
-            while (get(j).compareTo(get(pivot)) > 0) j--;
+            this.head = sentinel.next;
+            this.tail = sortedTail;
+        } while (merged);
+    }
 
-            if (i <= j) {
-                swap(i, j);
-                i++;
-                j--;
+    /**
+     * Find the last node of the ascending run that starts at the given node.
+     *
+     * @param node the first node of the run
+     * @return the last node of the run
+     */
+    private Node<T> runEnd(Node<T> node) {
+        while (node.next != null && this.compare(node.data, node.next.data) <= 0) {
+            node = node.next;
+            if (Metrics.ENABLED) this.sortNodeHops++;
+        }
+        return node;
+    }
+
+    /**
+     * Merge two ascending runs, each one ending with null, and link the result after the given tail.
+     *
+     * @param tail   the node the merged run is linked to
+     * @param first  the first run, which wins the ties to keep the sort stable
+     * @param second the second run
+     * @return the last node of the merged run
+     */
+    private Node<T> merge(Node<T> tail, Node<T> first, Node<T> second) {
+        while (first != null && second != null) {
+            if (this.compare(first.data, second.data) <= 0) {
+                tail.next = first;
+                first = first.next;
+            } else {
+                tail.next = second;
+                second = second.next;
             }
+            tail = tail.next;
+            if (Metrics.ENABLED) this.sortNodeHops++;
+        }
+
+        tail.next = first != null ? first : second;
+        while (tail.next != null) {
+            tail = tail.next;
+            if (Metrics.ENABLED) this.sortNodeHops++;
         }
+        return tail;
+    }
 
-        if (left < j) quickSort(left, j);
-        if (i < right) quickSort(i, right);
+    private int compare(T first, T second) {
+        if (Metrics.ENABLED) this.sortComparisons++;
+        return first.compareTo(second);
+    }
+
+    /**
+     * Count a sort done in an array: the comparisons of the sort, and a walk through the nodes to copy the list into the
+     * array plus another one to write the values back.
+     */
+    private void recordArraySort(long comparisons) {
+        if (!Metrics.ENABLED) return;
+
+        this.sorts++;
+        this.sortComparisons += comparisons;
+        this.sortNodeHops += 2L * this.size;
+    }
+
+    /**
+     * <h2>
+     * Work done by the sorts of the list
+     * </h2>
+     *
+     * <p>
+     * The number of sorts, and the comparisons and node hops (moves from a node to the next one) of all of them. The
+     * sorts in an array walk the list twice, while the merge sort walks the runs of each pass. The work is only counted
+     * when {@link Metrics#ENABLED} is true.
+     * </p>
+     */
+    @Override
+    public Map<String, Number> metrics() {
+        var metrics = new LinkedHashMap<String, Number>();
+        metrics.put("sorts", this.sorts);
+        metrics.put("sort comparisons", this.sortComparisons);
+        metrics.put("sort node hops", this.sortNodeHops);
+        return metrics;
+    }
+
+    /**
+     * Write the values of the array back into the nodes of the list, in order. No node is created or relinked.
+     *
+     * @param array the values, with the same length as the list
+     */
+    private void writeBack(T[] array) {
+        var current = this.head;
+        for (T value : array) {
+            current.data = value;
+            current = current.next;
+        }
     }
 
     /**
@@ -290,24 +461,6 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
         current.data = value;
     }
 
-    /**
-     * <h2>
-     * Swap the current elements at the given indexes
-     * </h2>
-     *
-     * <p>
-     * This method will get the elements at the given indexes and swap them.
-     * </p>
-     *
-     * @param i the first index
-     * @param j the second index
-     */
-    private void swap(int i, int j) {
-        T temp = get(i);
-        set(i, get(j));
-        set(j, temp);
-    }
-
     @Override
     public String toString() {
         var current = this.head;
@@ -332,6 +485,37 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
         }
     }
 
+    /**
+     * <h2>
+     * Iterator over the list
+     * </h2>
+     *
+     * <p>
+     * Unlike {@link #forEach(Consumer)}, the iterator lets the caller pull the elements one at a time, which is needed to
+     * walk this list side by side with another ordered structure, as a merge join does.
+     * </p>
+     *
+     * @return an iterator from the head to the tail of the list
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private Node<T> current = head;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public T next() {
+                if (current == null) throw new NoSuchElementException();
+                var data = current.data;
+                current = current.next;
+                return data;
+            }
+        };
+    }
+
     public T[] toArray() {
         var array = (T[]) new Comparable[this.size];
         var current = this.head;
@@ -356,13 +540,17 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
     }
 
     private static class QuickSortMultiThreading<T extends Comparable<T>>
-            extends RecursiveTask<T> {
+            extends RecursiveTask<Long> {
 
         private static final Random RANDOM = new Random();
+        private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
         private final int start;
         private final int end;
         private final transient T[] arr;
 
+        // comparisons of the partition of this task
+        private long comparisons;
+
         // Function to implement
         // QuickSort method
         QuickSortMultiThreading(int start,
@@ -402,15 +590,19 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
             arr[pivoted] = t;
             j--;
 
-            // Start partitioning
+            // Start partitioning. The elements equal to the pivot stop both scans and are swapped, so they are split
+            // between the two sides: skipping them on one side puts all of them in the same partition, and an input
+            // with few distinct keys degenerates into O(n^2) comparisons and a recursion as deep as the array
             while (i <= j) {
 
-                if (arr[i].compareTo(arr[end]) <= 0) {
+                this.comparisons++;
+                if (arr[i].compareTo(arr[end]) < 0) {
                     i++;
                     continue;
                 }
 
-                if (arr[j].compareTo(arr[end]) >= 0) {
+                this.comparisons++;
+                if (arr[j].compareTo(arr[end]) > 0) {
                     j--;
                     continue;
                 }
@@ -431,10 +623,15 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
         }
 
         @Override
-        protected T compute() {
+        protected Long compute() {
             // Base case
             if (start >= end)
-                return null;
+                return 0L;
+
+            // Small partitions are not worth a new task
+            if (end - start < SEQUENTIAL_THRESHOLD) {
+                return ArraySorts.quickSort(arr, start, end);
+            }
 
             // Find partition
             int p = partition(start, end, arr);
@@ -452,13 +649,10 @@ public class SortedLinkedList<T extends Comparable<T>> implements DataStructure<
 
             // Left subproblem as separate thread
             left.fork();
-            right.compute();
-
-            // Wait until left thread complete
-            left.join();
+            long rightComparisons = right.compute();
 
-            // We don't want anything as return
-            return null;
+            // Wait until left thread complete, and return the comparisons of the whole range
+            return this.comparisons + left.join() + rightComparisons;
         }
     }
 